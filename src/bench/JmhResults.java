@@ -0,0 +1,122 @@
+package bench;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects benchmark results and writes them as JSON in the layout JMH uses for its own results, so the
+ * same tools can compare runs of the plain-Java benchmarks in this package.
+ */
+public class JmhResults {
+    private static final double Z_99_9 = 3.291; // Two-sided 99.9% interval, the confidence JMH reports errors at
+
+    private final List<String> results = new ArrayList<>();
+
+    /**
+     * The per-iteration values of one measurement.
+     *
+     * @param values the value measured in each iteration
+     * @param unit the values' unit, e.g. "ms/op"
+     */
+    public record Metric(double[] values, String unit) {
+
+        public double mean() {
+            return JmhResults.mean(values);
+        }
+    }
+
+    /**
+     * Adds the result of one benchmark run.
+     *
+     * @param benchmark the benchmark's name
+     * @param mode the JMH mode the metric corresponds to, "avgt" for time per operation or "thrpt" for
+     *             operations per time
+     * @param warmup the number of warmup iterations
+     * @param params the parameters the benchmark ran with
+     * @param primary the main measurement
+     * @param secondary further measurements, by name
+     */
+    public void add(String benchmark, String mode, int warmup, Map<String, String> params, Metric primary, Map<String, Metric> secondary) {
+        StringBuilder json = new StringBuilder();
+        json.append("  {\n");
+        json.append("    \"benchmark\" : \"").append(benchmark).append("\",\n");
+        json.append("    \"mode\" : \"").append(mode).append("\",\n");
+        json.append("    \"warmupIterations\" : ").append(warmup).append(",\n");
+        json.append("    \"measurementIterations\" : ").append(primary.values().length).append(",\n");
+        json.append("    \"params\" : {\n");
+        List<String> paramLines = new ArrayList<>();
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            paramLines.add("      \"" + param.getKey() + "\" : \"" + param.getValue() + "\"");
+        }
+        json.append(String.join(",\n", paramLines)).append("\n");
+        json.append("    },\n");
+        json.append("    \"primaryMetric\" : ").append(format(primary, "      ")).append(",\n");
+        json.append("    \"secondaryMetrics\" : {\n");
+        List<String> secondaryLines = new ArrayList<>();
+        for (Map.Entry<String, Metric> metric : secondary.entrySet()) {
+            secondaryLines.add("      \"·" + metric.getKey() + "\" : " + format(metric.getValue(), "        "));
+        }
+        json.append(String.join(",\n", secondaryLines)).append("\n");
+        json.append("    }\n");
+        json.append("  }");
+        results.add(json.toString());
+    }
+
+    /**
+     * Writes every result added so far as a JSON array.
+     *
+     * @param file the file to write
+     */
+    public void write(Path file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file))) {
+            writer.println("[");
+            writer.println(String.join(",\n", results));
+            writer.println("]");
+        }
+        System.out.println("Wrote " + results.size() + " results to " + file);
+    }
+
+    /**
+     * Formats one metric the way JMH does: its mean, the half-width of its 99.9% confidence interval, its
+     * unit and the raw per-iteration values.
+     */
+    private static String format(Metric metric, String indent) {
+        double[] values = metric.values();
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            raw.append(i == 0 ? "" : ", ").append(values[i]);
+        }
+        return "{\n"
+                + indent + "\"score\" : " + number(mean(values)) + ",\n"
+                + indent + "\"scoreError\" : " + number(error(values)) + ",\n"
+                + indent + "\"scoreUnit\" : \"" + metric.unit() + "\",\n"
+                + indent + "\"rawData\" : [ [ " + raw + " ] ]\n"
+                + indent.substring(2) + "}";
+    }
+
+    /**
+     * Formats a number for JSON, which has no NaN; JMH writes it as a string.
+     */
+    private static String number(double value) {
+        return Double.isNaN(value) ? "\"NaN\"" : Double.toString(value);
+    }
+
+    static double mean(double[] values) {
+        return Arrays.stream(values).average().orElse(Double.NaN);
+    }
+
+    private static double error(double[] values) {
+        if (values.length < 2) {
+            return Double.NaN;
+        }
+        double mean = mean(values);
+        double squares = Arrays.stream(values).map(value -> (value - mean) * (value - mean)).sum();
+        return Z_99_9 * Math.sqrt(squares / (values.length - 1)) / Math.sqrt(values.length);
+    }
+}
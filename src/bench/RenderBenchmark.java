@@ -0,0 +1,172 @@
+package bench;
+
+import core.Direction;
+import core.IsometricPlayer;
+import core.IsometricTERenderer;
+import core.Player;
+import core.World;
+import tileengine.IslandTileSet;
+import tileengine.OffscreenTarget;
+import tileengine.TERenderer;
+import tileengine.TETile;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures frames per second of TERenderer and IsometricTERenderer drawing into an OffscreenTarget, over
+ * world sizes, viewport sizes and, for the isometric view, zoom factors. The player walks back and forth
+ * and animates while frames are drawn, as in the game, with each frame either drawn tile by tile ("direct") or
+ * copied from a StaticLayer ("static"). Results are written as JSON in JMH's layout (see
+ * JmhResults).
+ * <p>
+ * Needs no display: run it from the project root with {@code -Djava.awt.headless=true} so the tile images
+ * are found.
+ * <p>
+ * Usage: {@code java bench.RenderBenchmark [--sizes 75x150,300x300] [--views standard,isometric]
+ * [--viewports 1440x752,800x600] [--zooms 0.75,1.0,1.27] [--layers direct,static] [--warmup N] [--iterations N]
+ * [--frames N] [--out FILE]}, where sizes are height x width, --warmup counts frames and --frames is the number of frames
+ * per measured iteration. The standard view cannot zoom, so it is only measured at zoom 1.
+ */
+public class RenderBenchmark {
+    private static final List<String> SIZES = List.of("75x150", "300x300", "1000x1000");
+    private static final List<String> VIEWS = List.of("standard", "isometric");
+    private static final List<String> VIEWPORTS = List.of("1440x752", "800x600", "1920x1080");
+    private static final List<String> ZOOMS = List.of("0.75", "1.0", "1.27");
+    private static final List<String> LAYERS = List.of("direct", "static");
+    private static final int FRAMES_PER_STEP = 8; // The player takes a step every this many frames
+    private static final long FRAME_NANOS = 1_000_000_000L / 60; // The animation advances by a 60 FPS frame
+    private static final String USAGE = "Usage: RenderBenchmark [--sizes HxW,...] [--views standard,isometric] "
+            + "[--viewports WxH,...] [--zooms Z,...] [--layers direct,static] [--warmup N] [--iterations N] [--frames N] [--out FILE]";
+
+    public static void main(String[] args) throws IOException {
+        List<String> sizes = SIZES;
+        List<String> views = VIEWS;
+        List<String> viewports = VIEWPORTS;
+        List<String> zooms = ZOOMS;
+        List<String> layers = LAYERS;
+        int warmup = 10;
+        int iterations = 3;
+        int frames = 10;
+        String out = "render-benchmark.json";
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--sizes" -> sizes = Arrays.asList(args[++i].split(","));
+                    case "--views" -> views = Arrays.asList(args[++i].split(","));
+                    case "--viewports" -> viewports = Arrays.asList(args[++i].split(","));
+                    case "--zooms" -> zooms = Arrays.asList(args[++i].split(","));
+                    case "--layers" -> layers = Arrays.asList(args[++i].split(","));
+                    case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                    case "--iterations" -> iterations = Integer.parseInt(args[++i]);
+                    case "--frames" -> frames = Integer.parseInt(args[++i]);
+                    case "--out" -> out = args[++i];
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        JmhResults results = new JmhResults();
+        System.out.printf("%-10s %-10s %-10s %6s %-7s %12s %12s%n", "size", "view", "viewport", "zoom", "layer",
+                "frames/s", "ms/frame");
+        for (String size : sizes) {
+            String[] dims = size.split("x");
+            IslandTileSet tileSet = new IslandTileSet();
+            World world = new World(0, Integer.parseInt(dims[0]), Integer.parseInt(dims[1]), "packed", "rectangular",
+                    -1, -1, "straight", -1, tileSet);
+            for (String view : views) {
+                boolean isometric = view.equals("isometric");
+                world.switchViews(isometric);
+                for (String viewport : viewports) {
+                    for (String zoom : isometric ? zooms : List.of("1.0")) {
+                        for (String layer : layers) {
+                            run(results, world, tileSet, size, isometric, viewport, Double.parseDouble(zoom),
+                                    layer.equals("static"), warmup, iterations, frames);
+                        }
+                    }
+                }
+            }
+        }
+        results.write(Path.of(out));
+    }
+
+    /**
+     * Benchmarks one combination and adds its result.
+     */
+    private static void run(JmhResults results, World world, IslandTileSet tileSet, String size, boolean isometric,
+                            String viewport, double zoom, boolean layered, int warmup, int iterations, int frames) {
+        String[] dims = viewport.split("x");
+        int canvasWidth = Integer.parseInt(dims[0]);
+        int canvasHeight = Integer.parseInt(dims[1]);
+        OffscreenTarget target = new OffscreenTarget();
+        TERenderer renderer = isometric ? new IsometricTERenderer(target, canvasWidth, canvasHeight)
+                : new TERenderer(target, canvasWidth, canvasHeight);
+
+        TETile[][] tiles = world.getTiles();
+        renderer.initialize(tiles.length, tiles[0].length);
+        renderer.setStaticLayer(layered);
+        if (renderer instanceof IsometricTERenderer isometricRenderer) {
+            isometricRenderer.setZoomFactor(zoom);
+        }
+        target.setMouse(canvasWidth / 2.0, canvasHeight / 2.0);
+
+        Point start = world.getRandomRoomCoords();
+        Player player = isometric ? new IsometricPlayer(Direction.DOWN, tileSet) : new Player(Direction.DOWN, tileSet);
+        player.setPos(start, tiles[start.x][start.y]);
+        tiles[start.x][start.y] = player;
+
+        int frame = 0;
+        for (int i = 0; i < warmup; i++) {
+            drawFrame(renderer, player, tiles, frame++);
+        }
+        double[] framesPerSecond = new double[iterations];
+        double[] frameMillis = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long startNanos = System.nanoTime();
+            for (int f = 0; f < frames; f++) {
+                drawFrame(renderer, player, tiles, frame++);
+            }
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            framesPerSecond[i] = frames / seconds;
+            frameMillis[i] = seconds * 1000 / frames;
+        }
+        Point end = player.getPos();
+        tiles[end.x][end.y] = player.getPrevTile();
+
+        JmhResults.Metric fps = new JmhResults.Metric(framesPerSecond, "ops/s");
+        JmhResults.Metric frameTime = new JmhResults.Metric(frameMillis, "ms/op");
+        System.out.printf("%-10s %-10s %-10s %6.2f %-7s %12.1f %12.3f%n", size, isometric ? "isometric" : "standard",
+                viewport, zoom, layered ? "static" : "direct", fps.mean(), frameTime.mean());
+
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("size", size);
+        params.put("view", isometric ? "isometric" : "standard");
+        params.put("viewport", viewport);
+        params.put("zoom", String.valueOf(zoom));
+        params.put("layer", layered ? "static" : "direct");
+        results.add("bench.RenderBenchmark.renderFrame", "thrpt", warmup, params, fps, Map.of("frameTime", frameTime));
+    }
+
+    /**
+     * Draws one frame the way GameEngine does: the player steps left and right every few frames, its
+     * animation advances, the cells it changed are reported to the static layer and the frame is rendered.
+     */
+    private static void drawFrame(TERenderer renderer, Player player, TETile[][] tiles, int frame) {
+        if (frame % FRAMES_PER_STEP == 0) {
+            player.move((frame / FRAMES_PER_STEP) % 2 == 0 ? Direction.LEFT : Direction.RIGHT, tiles);
+        }
+        player.advance(FRAME_NANOS);
+        player.reportDirtyCells(renderer);
+        renderer.renderFrame(tiles, player.getPos());
+    }
+}
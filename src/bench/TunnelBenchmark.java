@@ -0,0 +1,203 @@
+package bench;
+
+import core.Direction;
+import core.MazeTunneler;
+import core.RandomStreams;
+import tileengine.IslandTileSet;
+import tileengine.TileGrid;
+
+import java.awt.*;
+import java.lang.management.ManagementFactory;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.Stack;
+
+/**
+ * Compares MazeTunneler against the Point and Stack based tunneler it replaced, on an open field of nothing
+ * tiles sprinkled with doors. Both are first checked to carve identical mazes, then timed with a warmup.
+ * <p>
+ * Usage: {@code java bench.TunnelBenchmark [size] [iterations]}
+ */
+public class TunnelBenchmark {
+    private static final int BOUNDARY_BUFFER = 4;
+    private static final int CONTINUE_PERCENTAGE = 50;
+    private static final int WARMUP_ITERATIONS = 5;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1001;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        for (long seed = 0; seed < 5; seed++) {
+            TileGrid legacy = openField(size, seed);
+            TileGrid primitive = openField(size, seed);
+            new LegacyTunneler(legacy, new RandomStreams(seed), innerBounds(size), CONTINUE_PERCENTAGE).carve();
+            new MazeTunneler(primitive, new RandomStreams(seed), innerBounds(size), CONTINUE_PERCENTAGE).carve();
+            if (!sameTiles(legacy, primitive)) {
+                throw new IllegalStateException("Tunnelers carved different mazes for seed " + seed);
+            }
+        }
+
+        System.out.printf("Tunneling a %dx%d field, %d iterations%n", size, size, iterations);
+        measure("legacy", size, iterations, (grid, seed) ->
+                new LegacyTunneler(grid, new RandomStreams(seed), innerBounds(size), CONTINUE_PERCENTAGE).carve());
+        measure("primitive", size, iterations, (grid, seed) ->
+                new MazeTunneler(grid, new RandomStreams(seed), innerBounds(size), CONTINUE_PERCENTAGE).carve());
+    }
+
+    private interface Tunneler {
+        void carve(TileGrid grid, long seed);
+    }
+
+    /**
+     * Runs a tunneler on fresh fields and prints its average time and allocation per run.
+     */
+    private static void measure(String name, int size, int iterations, Tunneler tunneler) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            tunneler.carve(openField(size, i), i);
+        }
+
+        long nanos = 0;
+        long bytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            TileGrid grid = openField(size, i);
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            tunneler.carve(grid, i);
+            nanos += System.nanoTime() - start;
+            bytes += threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        }
+        System.out.printf("%-10s %9.2f ms/op %10.2f MB/op%n", name, nanos / 1e6 / iterations, bytes / 1e6 / iterations);
+    }
+
+    /**
+     * Builds a field of nothing tiles with a door on about one in fifty odd positions.
+     */
+    private static TileGrid openField(int size, long seed) {
+        TileGrid grid = new TileGrid(size, size);
+        Random rand = new Random(~seed);
+        for (int x = 0; x < size; x++) {
+            grid.fillColumn(x, TileGrid.NOTHING, 1);
+        }
+        for (int x = 1; x < size - 1; x += 2) {
+            for (int y = 1; y < size - 1; y += 2) {
+                if (rand.nextInt(50) == 0) {
+                    grid.set(x, y, TileGrid.DOOR, 0);
+                }
+            }
+        }
+        return grid;
+    }
+
+    private static Rectangle innerBounds(int size) {
+        Rectangle bounds = new Rectangle(size, size);
+        bounds.grow(-BOUNDARY_BUFFER, -BOUNDARY_BUFFER);
+        return bounds;
+    }
+
+    private static boolean sameTiles(TileGrid a, TileGrid b) {
+        for (int x = 0; x < a.getWidth(); x++) {
+            for (int y = 0; y < a.getHeight(); y++) {
+                if (a.kind(x, y) != b.kind(x, y) || a.variant(x, y) != b.variant(x, y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The tunneler World used before MazeTunneler, kept as the benchmark baseline. It draws from the same
+     * per-start streams as MazeTunneler.
+     */
+    private static class LegacyTunneler {
+        private final TileGrid grid;
+        private final RandomStreams streams;
+        private final Random rand = new Random();
+        private final Rectangle innerBounds;
+        private final int continuePercentage;
+        private final BitSet visited;
+
+        LegacyTunneler(TileGrid grid, RandomStreams streams, Rectangle innerBounds, int continuePercentage) {
+            this.grid = grid;
+            this.streams = streams;
+            this.innerBounds = innerBounds;
+            this.continuePercentage = continuePercentage;
+            this.visited = new BitSet(grid.getWidth() * grid.getHeight());
+        }
+
+        void carve() {
+            for (int i = 1; i < grid.getWidth() - 1; i += 2) {
+                for (int j = 1; j < grid.getHeight() - 1; j += 2) {
+                    if (grid.isNothing(i, j) || grid.isDoor(i, j)) {
+                        tunnel(i, j);
+                    }
+                }
+            }
+        }
+
+        private void tunnel(int startX, int startY) {
+            rand.setSeed(streams.seedFor(RandomStreams.Purpose.TUNNELS, grid.index(startX, startY)));
+            Stack<Object[]> nextToVisit = new Stack<>();
+            nextToVisit.push(new Object[]{new Point(startX, startY), null});
+            boolean biasNextVisit = false;
+
+            while (!nextToVisit.isEmpty()) {
+                Point pos = (Point) nextToVisit.peek()[0];
+                Direction lastDir = (Direction) nextToVisit.pop()[1];
+
+                for (Direction dir : Direction.getShuffledDirections(rand)) {
+                    if (biasNextVisit && dir.equals(lastDir)) continue;
+
+                    Point nPos = Direction.translate(pos, dir, 2);
+
+                    if (canTunnel(nPos)) {
+                        visit(pos.x, pos.y);
+                        makePath(pos, dir, 2);
+                        nextToVisit.add(new Object[]{nPos, dir});
+                    }
+                }
+
+                if (biasNextVisit) {
+                    Point nPos = Direction.translate(pos, lastDir, 2);
+
+                    if (canTunnel(nPos)) {
+                        visit(pos.x, pos.y);
+                        makePath(pos, lastDir, 2);
+                        nextToVisit.add(new Object[]{nPos, lastDir});
+                    }
+                }
+
+                biasNextVisit = rand.nextInt(100) < continuePercentage;
+            }
+        }
+
+        private boolean canTunnel(Point pos) {
+            if (!innerBounds.contains(pos)) return false;
+
+            if (grid.isDoor(pos.x, pos.y) && !beenVisited(pos.x, pos.y)) {
+                return true;
+            }
+
+            return grid.isNothing(pos.x, pos.y) && !beenVisited(pos.x, pos.y);
+        }
+
+        private boolean beenVisited(int x, int y) {
+            return visited.get(grid.index(x, y));
+        }
+
+        private void visit(int x, int y) {
+            visited.set(grid.index(x, y));
+        }
+
+        private void makePath(Point pos, Direction dir, int length) {
+            while (length > 0) {
+                pos = Direction.translate(pos, dir);
+                if (!grid.isDoor(pos.x, pos.y)) {
+                    grid.set(pos.x, pos.y, TileGrid.HALLWAY, IslandTileSet.HALLWAY_PATH);
+                }
+                length--;
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package bench;
+
+import core.GenerationReport;
+import core.World;
+import tileengine.IslandTileSet;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Times world generation over every combination of shape, spread, continuation and size, both as a whole
+ * and stage by stage, and writes the results as JSON in the layout JMH uses for its own results (see
+ * JmhResults), so the same tools can track regressions across runs.
+ * <p>
+ * Each combination is generated for a few warmup seeds and then for the same measured seeds on every run.
+ * Stages depend on the ones before them, so they are not run in isolation: their times are taken from the
+ * GenerationReport of each measured world, whose allocation includes the ForkJoinPool workers of stages
+ * that run in parallel on large worlds.
+ * <p>
+ * Usage: {@code java bench.WorldBenchmark [--sizes 75x150,300x300] [--shapes rectangular,circular]
+ * [--spreads packed] [--continuations straight] [--warmup N] [--iterations N] [--out FILE]}, where sizes are
+ * height x width. Every option defaults to the full set.
+ */
+public class WorldBenchmark {
+    private static final List<String> SIZES = List.of("75x150", "300x300", "1000x1000", "2000x2000");
+    private static final List<String> SHAPES = List.of("rectangular", "circular", "cube");
+    private static final List<String> SPREADS = List.of("packed", "scattered");
+    private static final List<String> CONTINUATIONS = List.of("straight", "semi-straight", "arbitrary");
+    private static final String USAGE = "Usage: WorldBenchmark [--sizes HxW,...] [--shapes ...] [--spreads ...] "
+            + "[--continuations ...] [--warmup N] [--iterations N] [--out FILE]";
+
+    public static void main(String[] args) throws IOException {
+        List<String> sizes = SIZES;
+        List<String> shapes = SHAPES;
+        List<String> spreads = SPREADS;
+        List<String> continuations = CONTINUATIONS;
+        int warmup = 2;
+        int iterations = 5;
+        String out = "world-benchmark.json";
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--sizes" -> sizes = Arrays.asList(args[++i].split(","));
+                    case "--shapes" -> shapes = Arrays.asList(args[++i].split(","));
+                    case "--spreads" -> spreads = Arrays.asList(args[++i].split(","));
+                    case "--continuations" -> continuations = Arrays.asList(args[++i].split(","));
+                    case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                    case "--iterations" -> iterations = Integer.parseInt(args[++i]);
+                    case "--out" -> out = args[++i];
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        JmhResults results = new JmhResults();
+        System.out.printf("%-10s %-12s %-10s %-14s %12s %12s%n", "size", "shape", "spread", "continuation", "ms/op", "MB/op");
+        for (String size : sizes) {
+            String[] dims = size.split("x");
+            int height = Integer.parseInt(dims[0]);
+            int width = Integer.parseInt(dims[1]);
+            for (String shape : shapes) {
+                for (String spread : spreads) {
+                    for (String continuation : continuations) {
+                        run(results, height, width, shape, spread, continuation, warmup, iterations);
+                    }
+                }
+            }
+        }
+
+        results.write(Path.of(out));
+    }
+
+    /**
+     * Benchmarks one combination and adds its result.
+     */
+    private static void run(JmhResults results, int height, int width, String shape, String spread, String continuation, int warmup, int iterations) {
+        for (int i = 0; i < warmup; i++) {
+            generate(1000 + i, height, width, shape, spread, continuation);
+        }
+
+        double[] totals = new double[iterations];
+        double[] allocated = new double[iterations];
+        Map<String, double[]> stages = new LinkedHashMap<>();
+        for (int i = 0; i < iterations; i++) {
+            GenerationReport report = generate(i, height, width, shape, spread, continuation).getGenerationReport();
+            totals[i] = report.getTotalNanos() / 1e6;
+            allocated[i] = report.getTotalAllocatedBytes();
+            for (GenerationReport.StageResult stage : report.getStages()) {
+                stages.computeIfAbsent(stage.name(), name -> new double[iterations])[i] = stage.nanos() / 1e6;
+            }
+        }
+        JmhResults.Metric total = new JmhResults.Metric(totals, "ms/op");
+        JmhResults.Metric allocation = new JmhResults.Metric(allocated, "B/op");
+        System.out.printf("%-10s %-12s %-10s %-14s %12.3f %12.2f%n", height + "x" + width, shape, spread,
+                continuation, total.mean(), allocation.mean() / 1e6);
+
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("height", String.valueOf(height));
+        params.put("width", String.valueOf(width));
+        params.put("shape", shape);
+        params.put("spread", spread);
+        params.put("continuation", continuation);
+        Map<String, JmhResults.Metric> secondary = new LinkedHashMap<>();
+        secondary.put("gc.alloc.rate.norm", allocation);
+        for (Map.Entry<String, double[]> stage : stages.entrySet()) {
+            secondary.put("stage." + stage.getKey(), new JmhResults.Metric(stage.getValue(), "ms/op"));
+        }
+        results.add("bench.WorldBenchmark.generate", "avgt", warmup, params, total, secondary);
+    }
+
+    private static World generate(long seed, int height, int width, String shape, String spread, String continuation) {
+        return new World(seed, height, width, spread, shape, -1, -1, continuation, -1, new IslandTileSet());
+    }
+}
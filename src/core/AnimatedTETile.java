@@ -1,56 +1,58 @@
 package core;
 
-import edu.princeton.cs.algs4.StdDraw;
+import tileengine.RenderTarget;
+import tileengine.TERenderer;
 import tileengine.TETile;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
 
 
 /** Abstract class used to represent a non-static animated TEtile, intended to be moddular enough to
  * support any type of animation (i.e., not just player movement). Much of the logic for this class' implementation
- * (and that of the helper classes Frame and SpriteSheet) was motivated by the StackOverflow post here:
+ * (and that of the helper classes Frame, AnimationClip and SpriteSheet) was motivated by the StackOverflow post here:
  * /**
  *  * @source Motivated by
  *  * https://gamedev.stackexchange.com/questions/53705/how-can-i-make-a-sprite-sheet-based-animation-system
  *  */
 public abstract class AnimatedTETile extends TETile {
-    private final SpriteSheet spriteSheet;
-    private final int delay;
-    private final ArrayList<Frame> frames;
+    /* Each frame composited over each tile it has been drawn on, by frame and then by tile. Frames are interned by
+     * ClipRegistry and tiles by IslandTileSet, so identity keys tell every frame and tile kind apart. */
+    private final Map<BufferedImage, Map<TETile, BufferedImage>> composites;
+    /* An immutable tile for each composite, handed to the render thread in frame snapshots */
+    private final Map<BufferedImage, TETile> stills;
     private final int maxCycles;
-    private int totalFrames;
+    private AnimationClip clip;
     private int currentFrame;
-    private int frameCounter;
+    /* How long the current clip has played */
+    private long elapsedNanos;
     private boolean stopped;
-    private int cycleCounter;
     private TETile prevTile;
     private Point pos;
+    /* Where this tile was and what it looked like when it last reported its dirty cells */
+    private Point reportedPos;
+    private BufferedImage reportedSprite;
+    private TETile reportedPrevTile;
 
-    public AnimatedTETile(char character, Color textColor, Color backgroundColor, String description, int id, String tilesetFilepath,
-                          int[][] tileSetCoords, int delay, int tileWidth, int tileHeight, int maxCycles) {
+    public AnimatedTETile(char character, Color textColor, Color backgroundColor, String description, int id,
+                          AnimationClip clip, int maxCycles) {
         super(character, textColor, backgroundColor, description, null, id);
-        this.spriteSheet = new SpriteSheet(tilesetFilepath, tileWidth, tileHeight);
-
-        this.frames = new ArrayList<>();
-        this.frameCounter = 0;
+        this.clip = clip;
+        this.composites = new IdentityHashMap<>();
+        this.stills = new IdentityHashMap<>();
         this.currentFrame = 0;
-        this.cycleCounter = 0;
+        this.elapsedNanos = 0;
         this.stopped = true;
-        this.delay = delay;
         this.maxCycles = maxCycles;
-
-        for (int i = 0; i < tileSetCoords.length; i++) {
-            BufferedImage spr = spriteSheet.getSpriteBufferedImage(tileSetCoords[i][0], tileSetCoords[i][1]);
-            addFrame(spr);
-        }
     }
 
     /* @Source Chat-GPT was queried and wrote a sizable portion of this method */
     public static BufferedImage overlayImages(TETile tile, BufferedImage overlayImage) {
         // Create a combined image with the same dimensions as the tile's sprite
-        BufferedImage combined = new BufferedImage(tile.getSpriteWidth(), tile.getSpriteHeight(), BufferedImage.TYPE_INT_ARGB);
+        BufferedImage combined = new BufferedImage(tile.getSpriteWidth(), tile.getSpriteHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
 
         // Get the graphics context of the combined image
         Graphics2D g = combined.createGraphics();
@@ -73,7 +75,7 @@ public abstract class AnimatedTETile extends TETile {
     }
 
     public void start() {
-        if (!stopped || frames.isEmpty()) {
+        if (!stopped || clip.size() == 0) {
             return;
         }
         this.stopped = false;
@@ -81,62 +83,107 @@ public abstract class AnimatedTETile extends TETile {
 
     public void reset() {
         this.stopped = true;
-        this.frameCounter = 0;
         this.currentFrame = 0;
-        this.cycleCounter = 0;
+        this.elapsedNanos = 0;
     }
 
-    public void switchAnimation(int[][] newAnimation) {
+    /**
+     * Switches to another clip, played from its first frame. The clip is shared, not copied.
+     *
+     * @param newClip the clip to play
+     */
+    public void switchAnimation(AnimationClip newClip) {
         reset();
-        this.frames.clear();
-        for (int i = 0; i < newAnimation.length; i++) {
-            BufferedImage spr = spriteSheet.getSpriteBufferedImage(newAnimation[i][0], newAnimation[i][1]);
-            addFrame(spr);
-        }
-    }
-
-    private void addFrame(BufferedImage frame) {
-        this.frames.add(new Frame(frame));
-        this.currentFrame = 0;
-        this.totalFrames = this.frames.size();
+        this.clip = newClip;
     }
 
     @Override
     public BufferedImage getSprite() {
-        return frames.get(currentFrame).getFrame();
+        return clip.size() == 0 ? null : clip.getFrame(currentFrame);
     }
 
+    /**
+     * Advances the animation by the time passed, showing the frame of the clip that falls at the time it has
+     * played so far. Once the clip has played maxCycles + 1 times, the animation stops on its first frame.
+     *
+     * @param nanos the nanoseconds passed since the last advance
+     */
+    public void advance(long nanos) {
+        if (stopped) {
+            return;
+        }
+        elapsedNanos += nanos;
+        long frame = elapsedNanos / clip.getFrameNanos();
+        if (frame / clip.size() > maxCycles) {
+            reset();
+            return;
+        }
+        currentFrame = (int) (frame % clip.size());
+    }
 
-    // Implementation of this method was heavily influenced by the StackOverflow post linked in the initial class doc.
-    public void update() {
-        if (!stopped) {
-            frameCounter++;
-
-            if (cycleCounter > maxCycles) {
-                reset();
-            }
+    /**
+     * Returns the current frame drawn over the tile underneath, compositing it the first time this frame is
+     * drawn over this tile.
+     */
+    private BufferedImage getComposite() {
+        BufferedImage frame = getSprite();
+        return composites.computeIfAbsent(frame, f -> new IdentityHashMap<>())
+                .computeIfAbsent(prevTile, tile -> overlayImages(tile, frame));
+    }
 
-            if (frameCounter > delay) {
-                frameCounter = 0;
-                currentFrame += 1;
+    /**
+     * Returns an immutable tile that looks like this tile does now: its current frame over the tile underneath.
+     * Unlike this tile, it can be drawn on another thread while this one keeps animating.
+     *
+     * @return a still of this tile
+     */
+    public TETile still() {
+        if (clip.size() == 0) {
+            return this; // Drawn as a character, which never changes
+        }
+        return stills.computeIfAbsent(getComposite(), composite -> new StillTile(this, composite));
+    }
 
-                if (currentFrame > totalFrames - 1) {
-                    currentFrame = 0;
-                    cycleCounter += 1;
-                }
+    @Override
+    public void draw(RenderTarget target, double x, double y) {
+        if (clip.size() > 0) {
+            try {
+                target.picture(x + 0.5, y + 0.5, getComposite());
+                return;
+            } catch (IllegalArgumentException e) {
+                // The target can't draw images from memory, so fall back to the character below.
             }
         }
+        super.draw(target, x, y); // Draw char with standard TETile method if we can't render images
+    }
 
+    /**
+     * Marks the cells this tile changed since it last reported them as dirty in the renderer's static layer:
+     * the cell it left and the cell it is on, if it moved, changed frame or now stands on a different tile.
+     *
+     * @param renderer the renderer drawing this tile
+     */
+    public void reportDirtyCells(TERenderer renderer) {
+        reportDirtyCells(renderer::markDirty);
     }
 
-    @Override
-    public void draw(double x, double y) {
-        if (spriteSheet.isValidSpriteSheet()) {
-            BufferedImage overlaid = overlayImages(prevTile, getSprite());
-            StdDraw.picture(x + 0.5, y + 0.5, spriteSheet.convertSpriteToFilePath(overlaid));
+    /**
+     * Passes the cells this tile changed since it last reported them to the given consumer, as x and y.
+     *
+     * @param dirtyCells receives each changed cell
+     */
+    public void reportDirtyCells(BiConsumer<Integer, Integer> dirtyCells) {
+        BufferedImage sprite = getSprite();
+        if (pos.equals(reportedPos) && sprite == reportedSprite && prevTile == reportedPrevTile) {
             return;
         }
-        super.draw(x, y); // Draw char with standard TETile method if we can't render images
+        if (reportedPos != null) {
+            dirtyCells.accept(reportedPos.x, reportedPos.y);
+        }
+        dirtyCells.accept(pos.x, pos.y);
+        reportedPos = new Point(pos);
+        reportedSprite = sprite;
+        reportedPrevTile = prevTile;
     }
 
     public TETile getPrevTile() {
@@ -0,0 +1,56 @@
+package core;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The frames of one animation, in order, and the rate they play at. A clip never changes once sliced, so every
+ * tile playing it shares it, and switching animations only swaps the clip a tile points to. ClipRegistry
+ * slices each clip from its sprite sheet once.
+ */
+public final class AnimationClip {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Frame[] frames;
+    private final long frameNanos;
+
+    /**
+     * Slices a clip out of a sprite sheet. A clip of a sheet that cannot be read has no frames.
+     *
+     * @param spriteSheet the sheet to cut the frames from
+     * @param tileSetCoords the sprite sheet coordinates of each frame
+     * @param framesPerSecond how many frames to show per second
+     */
+    public AnimationClip(SpriteSheet spriteSheet, int[][] tileSetCoords, double framesPerSecond) {
+        if (!(framesPerSecond > 0)) {
+            throw new IllegalArgumentException("Frames per second must be positive: " + framesPerSecond);
+        }
+        this.frameNanos = Math.max(1, Math.round(NANOS_PER_SECOND / framesPerSecond));
+
+        if (!spriteSheet.isValidSpriteSheet()) {
+            this.frames = new Frame[0];
+            return;
+        }
+        this.frames = new Frame[tileSetCoords.length];
+        for (int i = 0; i < tileSetCoords.length; i++) {
+            frames[i] = new Frame(spriteSheet.getSpriteBufferedImage(tileSetCoords[i][0], tileSetCoords[i][1]));
+        }
+    }
+
+    public BufferedImage getFrame(int index) {
+        return frames[index].getFrame();
+    }
+
+    public int size() {
+        return frames.length;
+    }
+
+    /**
+     * Returns how long each frame is shown.
+     *
+     * @return the nanoseconds per frame
+     */
+    public long getFrameNanos() {
+        return frameNanos;
+    }
+}
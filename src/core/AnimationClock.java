@@ -0,0 +1,37 @@
+package core;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives animations by the monotonic System.nanoTime clock rather than by how often ticks run: each pass
+ * measures the time since the previous one and advances every animated tile by it, so clips play at their own
+ * frame rates on every machine.
+ * <p>
+ * A step is capped at MAX_STEP_NANOS, so animations pause rather than jump ahead while the game waits, e.g.
+ * between key presses when ticks are not cycled.
+ */
+public class AnimationClock {
+    private static final long MAX_STEP_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private long lastNanos;
+    private boolean started;
+
+    /**
+     * Advances every animated tile by the time passed since the last call, or by nothing on the first call.
+     *
+     * @param tiles the tiles to advance
+     * @return the nanoseconds the tiles were advanced by
+     */
+    public long advance(List<? extends AnimatedTETile> tiles) {
+        long now = System.nanoTime();
+        long step = started ? Math.min(now - lastNanos, MAX_STEP_NANOS) : 0;
+        lastNanos = now;
+        started = true;
+
+        for (int i = 0; i < tiles.size(); i++) {
+            tiles.get(i).advance(step);
+        }
+        return step;
+    }
+}
@@ -0,0 +1,165 @@
+package core;
+
+import tileengine.IslandTileSet;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+
+/**
+ * Headless batch generator that builds worlds for many seeds in parallel and writes one summary line
+ * per world. It only creates Worlds, so it never touches StdDraw and runs without a display.
+ * <p>
+ * Usage: {@code java core.BatchGenerator (--seeds FROM-TO | --seed-file FILE) [--params PARAMS]
+ * [--threads N] [--out FILE] [--stages]}, where PARAMS are the GameState creation parameters without the seed
+ * ("height,width,spread,shape,minRoomDim,maxRoomDim,continuation,continuePercentage"). With --stages, the time
+ * and allocation of each generation stage, summed over every world, is printed at the end.
+ */
+public class BatchGenerator {
+    private static final Pattern SEED_RANGE = Pattern.compile("(-?\\d+)-(-?\\d+)");
+    private static final String DEFAULT_PARAMS = "75,150,null,null,-1,-1,null,-1";
+    private static final String USAGE = "Usage: BatchGenerator (--seeds FROM-TO | --seed-file FILE) "
+            + "[--params height,width,spread,shape,minRoomDim,maxRoomDim,continuation,continuePercentage] "
+            + "[--threads N] [--out FILE] [--stages]";
+
+    private final WorldParams params;
+    private final int threads;
+    private final Map<String, long[]> stageTotals = new LinkedHashMap<>(); // Name -> {nanos, allocatedBytes}
+
+    /**
+     * Constructs a BatchGenerator.
+     *
+     * @param params the creation parameters shared by every world; the seed is replaced per world
+     * @param threads the number of worlds to generate at once
+     */
+    public BatchGenerator(WorldParams params, int threads) {
+        this.params = params;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws IOException {
+        long[] seeds = null;
+        String paramString = DEFAULT_PARAMS;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String out = "batch.csv";
+        boolean printStages = false;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--seeds" -> {
+                        Matcher range = SEED_RANGE.matcher(args[++i]);
+                        if (!range.matches()) {
+                            throw new IllegalArgumentException("Bad seed range " + args[i]);
+                        }
+                        seeds = LongStream.rangeClosed(Long.parseLong(range.group(1)), Long.parseLong(range.group(2))).toArray();
+                    }
+                    case "--seed-file" -> seeds = Files.readAllLines(Path.of(args[++i])).stream()
+                            .map(String::trim)
+                            .filter(line -> !line.isEmpty())
+                            .mapToLong(Long::parseLong)
+                            .toArray();
+                    case "--params" -> paramString = args[++i];
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--out" -> out = args[++i];
+                    case "--stages" -> printStages = true;
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        if (seeds == null) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        BatchGenerator generator = new BatchGenerator(WorldParams.fromString("0," + paramString), threads);
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(out))) {
+            generator.run(seeds, new PrintWriter(writer));
+        }
+        if (printStages) {
+            System.out.print(generator.getStageTotals());
+        }
+    }
+
+    /**
+     * Generates a world for every seed and writes "seed,rooms,walkableTiles,generationMillis" for each
+     * and flushes it as soon as it is done, so lines appear in completion order rather than seed order. Throughput is
+     * reported on standard output once every world is done.
+     *
+     * @param seeds the seeds to generate
+     * @param out where to write the summaries
+     */
+    public void run(long[] seeds, PrintWriter out) {
+        out.println("seed,rooms,walkableTiles,generationMillis");
+        out.flush();
+        AtomicLong done = new AtomicLong();
+        long start = System.nanoTime();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> LongStream.of(seeds).parallel().forEach(seed -> {
+                World world = params.withSeed(seed).createWorld(new IslandTileSet());
+                String summary = summarize(seed, world);
+                synchronized (out) {
+                    out.println(summary);
+                    out.flush(); // Streamed, so progress can be followed and survives an interrupted run
+                    for (GenerationReport.StageResult stage : world.getGenerationReport().getStages()) {
+                        long[] totals = stageTotals.computeIfAbsent(stage.name(), name -> new long[2]);
+                        totals[0] += stage.nanos();
+                        totals[1] += stage.allocatedBytes();
+                    }
+                }
+                done.incrementAndGet();
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdown();
+            out.flush();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Generated %d worlds in %.2f s on %d threads (%.1f worlds/sec)%n",
+                done.get(), seconds, threads, done.get() / seconds);
+    }
+
+    /**
+     * Returns the time and allocation of each generation stage, summed over every world generated so far.
+     *
+     * @return the summed report
+     */
+    public GenerationReport getStageTotals() {
+        return new GenerationReport(stageTotals.entrySet().stream()
+                .map(stage -> new GenerationReport.StageResult(stage.getKey(), stage.getValue()[0], stage.getValue()[1]))
+                .toList());
+    }
+
+    /**
+     * Summarizes the world generated for one seed.
+     *
+     * @param seed the seed the world was generated from
+     * @param world the generated world
+     * @return the summary line for the world
+     */
+    private String summarize(long seed, World world) {
+        long millis = world.getGenerationReport().getTotalNanos() / 1_000_000;
+        return seed + "," + world.getNumRooms() + "," + world.getGrid().countWalkable() + "," + millis;
+    }
+}
@@ -0,0 +1,271 @@
+package core;
+
+import tileengine.IslandTileSet;
+import tileengine.TETile;
+import tileengine.TileGrid;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * An endless world streamed in square chunks. Each chunk is a small rectangular island generated by World
+ * from a seed derived from the world seed and the chunk's coordinates, so a chunk always comes out the same
+ * no matter when or how often it is generated. Neighbouring islands are joined by corridors that meet at
+ * the same, seed-derived spot on their shared border.
+ * <p>
+ * Only the chunks around the player are kept: the window handed to GameEngine and the renderers covers the
+ * player's chunk and its neighbours, and chunks that have not been used recently are evicted and simply
+ * regenerated if the player returns.
+ */
+public class ChunkedWorld implements PlayableWorld {
+    public static final int CHUNK_SIZE = 64;
+    private static final int WINDOW_RADIUS = 1; // Chunks on each side of the player's chunk in the window
+    private static final int MAX_LOADED_CHUNKS = 36;
+    private static final int CONNECTOR_MARGIN = 8; // Keeps border corridors away from the chunk corners
+
+    private final WorldParams params;
+    private final IslandTileSet tileSet;
+    private final Map<Long, TileGrid> chunks = new LinkedHashMap<>(MAX_LOADED_CHUNKS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, TileGrid> eldest) {
+            return size() > MAX_LOADED_CHUNKS;
+        }
+    };
+    private int centerChunkX = 0;
+    private int centerChunkY = 0;
+    private TETile[][] tiles; // The window, built on demand by getTiles()
+
+    /**
+     * Constructs a ChunkedWorld. The height, width and shape of the parameters are ignored; every other
+     * setting applies to each chunk.
+     *
+     * @param params the world creation parameters
+     * @param tileSet the tile set to draw tiles from
+     */
+    public ChunkedWorld(WorldParams params, IslandTileSet tileSet) {
+        this.params = params;
+        this.tileSet = tileSet;
+    }
+
+    /**
+     * Returns the chunk at the given chunk coordinates, generating it if it is not loaded.
+     *
+     * @param chunkX the chunk's x-coordinate
+     * @param chunkY the chunk's y-coordinate
+     * @return the chunk's tiles
+     */
+    public TileGrid getChunk(int chunkX, int chunkY) {
+        long key = ((long) chunkX << 32) | (chunkY & 0xffffffffL);
+        TileGrid chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = generateChunk(chunkX, chunkY);
+            chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Returns the tile at the given world coordinates, generating its chunk if needed.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @return the tile
+     */
+    public TETile getTile(int x, int y) {
+        TileGrid chunk = getChunk(Math.floorDiv(x, CHUNK_SIZE), Math.floorDiv(y, CHUNK_SIZE));
+        int localX = Math.floorMod(x, CHUNK_SIZE);
+        int localY = Math.floorMod(y, CHUNK_SIZE);
+        return tileSet.getTile(chunk.kind(localX, localY), chunk.variant(localX, localY));
+    }
+
+    /**
+     * Returns the number of chunks currently held in memory.
+     *
+     * @return the number of loaded chunks
+     */
+    public int getLoadedChunkCount() {
+        return chunks.size();
+    }
+
+    @Override
+    public TETile[][] getTiles() {
+        if (tiles == null) {
+            int chunksAcross = 2 * WINDOW_RADIUS + 1;
+            tiles = new TETile[chunksAcross * CHUNK_SIZE][chunksAcross * CHUNK_SIZE];
+            for (int i = 0; i < chunksAcross; i++) {
+                for (int j = 0; j < chunksAcross; j++) {
+                    TileGrid chunk = getChunk(centerChunkX - WINDOW_RADIUS + i, centerChunkY - WINDOW_RADIUS + j);
+                    for (int x = 0; x < CHUNK_SIZE; x++) {
+                        for (int y = 0; y < CHUNK_SIZE; y++) {
+                            tiles[i * CHUNK_SIZE + x][j * CHUNK_SIZE + y] = tileSet.getTile(chunk.kind(x, y), chunk.variant(x, y));
+                        }
+                    }
+                }
+            }
+        }
+        return tiles;
+    }
+
+    @Override
+    public void switchViews(boolean isometric) {
+        tileSet.switchTileImages(isometric);
+        tiles = null;
+    }
+
+    /**
+     * Returns the walkable tile closest to the middle of chunk (0, 0).
+     *
+     * @return the spawn position, in world coordinates
+     */
+    @Override
+    public Point getRandomRoomCoords() {
+        TileGrid chunk = getChunk(0, 0);
+        Point best = new Point(CHUNK_SIZE / 2, CHUNK_SIZE / 2);
+        double bestDistance = Double.MAX_VALUE;
+        for (int x = 0; x < CHUNK_SIZE; x++) {
+            for (int y = 0; y < CHUNK_SIZE; y++) {
+                double distance = Point.distance(x, y, CHUNK_SIZE / 2.0, CHUNK_SIZE / 2.0);
+                if (chunk.isFloor(x, y) && distance < bestDistance) {
+                    best = new Point(x, y);
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public Point getOrigin() {
+        return new Point((centerChunkX - WINDOW_RADIUS) * CHUNK_SIZE, (centerChunkY - WINDOW_RADIUS) * CHUNK_SIZE);
+    }
+
+    /**
+     * Re-centers the window on the chunk containing the given position once the player leaves the middle
+     * chunk. Chunks entering the window are generated; the rest stay cached until evicted.
+     */
+    @Override
+    public Point recenter(Point pos) {
+        Point origin = getOrigin();
+        int worldX = pos.x + origin.x;
+        int worldY = pos.y + origin.y;
+        int chunkX = Math.floorDiv(worldX, CHUNK_SIZE);
+        int chunkY = Math.floorDiv(worldY, CHUNK_SIZE);
+        if (chunkX == centerChunkX && chunkY == centerChunkY) {
+            return pos;
+        }
+
+        centerChunkX = chunkX;
+        centerChunkY = chunkY;
+        tiles = null;
+        origin = getOrigin();
+        return new Point(worldX - origin.x, worldY - origin.y);
+    }
+
+    /**
+     * Generates a chunk and carves a corridor from each of its borders to its rooms and hallways.
+     *
+     * @param chunkX the chunk's x-coordinate
+     * @param chunkY the chunk's y-coordinate
+     * @return the chunk's tiles
+     */
+    private TileGrid generateChunk(int chunkX, int chunkY) {
+        long chunkSeed = RandomStreams.mix(RandomStreams.mix(params.getSeed() ^ chunkX * 0x9E3779B97F4A7C15L) ^ chunkY * 0xC2B2AE3D27D4EB4FL);
+        TileGrid chunk = params.createChunk(chunkSeed, CHUNK_SIZE, tileSet).getGrid();
+        Random rand = new Random(chunkSeed);
+
+        List<Integer> carved = new ArrayList<>();
+        if (chunk.countWalkable() == 0) {
+            // Every room was cleaned away; give the border corridors somewhere to meet
+            chunk.set(CHUNK_SIZE / 2, CHUNK_SIZE / 2, TileGrid.HALLWAY, IslandTileSet.HALLWAY_PATH);
+            carved.add(chunk.index(CHUNK_SIZE / 2, CHUNK_SIZE / 2));
+        }
+
+        // A border is shared by two chunks, so both derive its corridor from the chunk to its left or below
+        carveConnector(chunk, CHUNK_SIZE - 1, connectorOffset(chunkX, chunkY, false), carved);
+        carveConnector(chunk, 0, connectorOffset(chunkX - 1, chunkY, false), carved);
+        carveConnector(chunk, connectorOffset(chunkX, chunkY, true), CHUNK_SIZE - 1, carved);
+        carveConnector(chunk, connectorOffset(chunkX, chunkY - 1, true), 0, carved);
+
+        for (int index : carved) {
+            int x = index / CHUNK_SIZE;
+            int y = index % CHUNK_SIZE;
+            for (int i = Math.max(0, x - 1); i <= Math.min(CHUNK_SIZE - 1, x + 1); i++) {
+                for (int j = Math.max(0, y - 1); j <= Math.min(CHUNK_SIZE - 1, y + 1); j++) {
+                    if (chunk.isNothing(i, j) || chunk.isUnused(i, j)) {
+                        chunk.set(i, j, TileGrid.WALL, rand.nextInt(1, IslandTileSet.NUM_IMAGE_VARIANTS + 1));
+                    }
+                }
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Returns where the corridor crosses the border on the right of (or above) a chunk.
+     *
+     * @param chunkX the x-coordinate of the chunk left of the border
+     * @param chunkY the y-coordinate of the chunk below the border
+     * @param horizontal true for the border above the chunk, false for the border to its right
+     * @return the offset along the border
+     */
+    private int connectorOffset(int chunkX, int chunkY, boolean horizontal) {
+        long hash = RandomStreams.mix(RandomStreams.mix(RandomStreams.mix(params.getSeed() + (horizontal ? 1 : 2)) ^ chunkX) ^ ((long) chunkY << 32));
+        return CONNECTOR_MARGIN + (int) Math.floorMod(hash, (long) CHUNK_SIZE - 2 * CONNECTOR_MARGIN);
+    }
+
+    /**
+     * Carves the shortest hallway from a border tile to the nearest walkable tile of a chunk. The hallway
+     * leaves the border straight away, so the only tile it shares with the border is its start.
+     *
+     * @param chunk the chunk to carve into
+     * @param startX the x-coordinate of the border tile
+     * @param startY the y-coordinate of the border tile
+     * @param carved collects the grid indices of the carved tiles
+     */
+    private static void carveConnector(TileGrid chunk, int startX, int startY, List<Integer> carved) {
+        int start = chunk.index(startX, startY);
+        int[] parent = new int[CHUNK_SIZE * CHUNK_SIZE];
+        Arrays.fill(parent, -1);
+        int[] queue = new int[CHUNK_SIZE * CHUNK_SIZE];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        parent[start] = start;
+
+        int target = -1;
+        while (head < tail) {
+            int index = queue[head++];
+            int x = index / CHUNK_SIZE;
+            int y = index % CHUNK_SIZE;
+            if (chunk.isWalkable(x, y)) {
+                target = index;
+                break;
+            }
+            for (Direction dir : Direction.values()) {
+                int nx = x + Direction.getDx(dir);
+                int ny = y + Direction.getDy(dir);
+                // Stay off the border, where the neighbouring chunk could not wall the corridor in
+                if (nx > 0 && ny > 0 && nx < CHUNK_SIZE - 1 && ny < CHUNK_SIZE - 1 && parent[chunk.index(nx, ny)] == -1) {
+                    parent[chunk.index(nx, ny)] = index;
+                    queue[tail++] = chunk.index(nx, ny);
+                }
+            }
+        }
+
+        if (target == -1 || target == start) {
+            return;
+        }
+        for (int index = parent[target]; ; index = parent[index]) {
+            chunk.set(index / CHUNK_SIZE, index % CHUNK_SIZE, TileGrid.HALLWAY, IslandTileSet.HALLWAY_PATH);
+            carved.add(index);
+            if (index == start) {
+                break;
+            }
+        }
+    }
+}
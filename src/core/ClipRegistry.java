@@ -0,0 +1,54 @@
+package core;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Slices the animation clips of each sprite sheet once and shares them between every tile that plays them, so
+ * turning or switching views swaps a reference instead of cutting frames out of the sheet again.
+ * <p>
+ * Clips are kept per sheet and animation name, e.g. the standard and isometric walks of the player. Every clip
+ * of an animation is sliced up front, from a sheet TileImages decodes only once.
+ */
+public class ClipRegistry {
+    private static final Map<Key, Map<Direction, AnimationClip>> CLIPS = new ConcurrentHashMap<>();
+
+    private record Key(String spriteSheetPath, String name) {
+    }
+
+    private ClipRegistry() {
+    }
+
+    /**
+     * Returns one animation's clip for each direction, slicing them all the first time they are requested.
+     * Later requests with the same sheet and name get the same clips, whatever else they pass.
+     *
+     * @param spriteSheetPath the path to the sprite sheet
+     * @param name the animation's name, unique among the sheet's animations
+     * @param tileWidth the width of each frame in the sprite sheet
+     * @param tileHeight the height of each frame in the sprite sheet
+     * @param tileSetCoords the sprite sheet coordinates of each direction's frames
+     * @param framesPerSecond how many frames to show per second
+     * @return an unmodifiable map from each direction to its clip
+     */
+    public static Map<Direction, AnimationClip> directional(String spriteSheetPath, String name, int tileWidth, int tileHeight,
+                                                            Map<Direction, int[][]> tileSetCoords, double framesPerSecond) {
+        return CLIPS.computeIfAbsent(new Key(spriteSheetPath, name), key -> {
+            SpriteSheet spriteSheet = new SpriteSheet(spriteSheetPath, tileWidth, tileHeight);
+            Map<Direction, AnimationClip> clips = new EnumMap<>(Direction.class);
+            tileSetCoords.forEach((dir, coords) -> clips.put(dir, new AnimationClip(spriteSheet, coords, framesPerSecond)));
+            return Collections.unmodifiableMap(clips);
+        });
+    }
+
+    /**
+     * Returns how many animations have been sliced.
+     *
+     * @return the number of sheet and name pairs requested so far
+     */
+    public static int size() {
+        return CLIPS.size();
+    }
+}
@@ -0,0 +1,255 @@
+package core;
+
+import tileengine.TERenderer;
+import tileengine.TETile;
+import tileengine.TileOverlay;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Characters wandering the island, kept as a structure of arrays instead of one AnimatedTETile each: every
+ * entity is an index into primitive arrays of positions, directions and animation state, so thousands of
+ * them are updated in one pass over a few arrays, split across the ForkJoinPool for large crowds.
+ * <p>
+ * Entities never write to the world's tiles. They only read them to stay on floors, hallways and doors, and
+ * are drawn over the world as a TileOverlay, so their moves leave the world and its static layer untouched.
+ * Each entity plays the walking clip of its direction once per step and stands on the clip's first frame
+ * between steps. All their choices come from RandomStreams, by entity and step, so a crowd wanders the same
+ * way for the same seed whether it is updated in parallel or not.
+ */
+public class EntityStore implements TileOverlay {
+    private static final int PARALLEL_MIN_ENTITIES = 4096; // Smaller crowds finish before work could be handed out
+    private static final long STEP_NANOS = TimeUnit.MILLISECONDS.toNanos(600);
+    private static final int SPAWN_ATTEMPTS = 1000;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final RandomStreams streams;
+    private final TETile tile;
+    /* The tile drawn for each direction and frame of the current clips, and the clips' frame durations */
+    private TETile[][] frameTiles;
+    private long[] frameNanos;
+
+    private int size;
+    private int[] xs = new int[0];
+    private int[] ys = new int[0];
+    private byte[] dirs = new byte[0];
+    private int[] frames = new int[0];
+    /* How long the current step's clip has played, how long until the next step, and the steps taken so far */
+    private long[] clipNanos = new long[0];
+    private long[] untilStepNanos = new long[0];
+    private int[] steps = new int[0];
+
+    /**
+     * Constructs an empty store.
+     *
+     * @param seed the seed the entities' spawn points and steps are chosen from
+     * @param tile the tile whose character and colors are drawn if the clips have no images
+     * @param clips the walking clip for each direction
+     */
+    public EntityStore(long seed, TETile tile, Map<Direction, AnimationClip> clips) {
+        this.streams = new RandomStreams(seed);
+        this.tile = tile;
+        applyClips(clips);
+    }
+
+    /**
+     * Switches every entity to other walking clips, e.g. when the view switches. Entities keep their frame.
+     *
+     * @param clips the walking clip for each direction
+     */
+    public void setClips(Map<Direction, AnimationClip> clips) {
+        applyClips(clips);
+    }
+
+    private void applyClips(Map<Direction, AnimationClip> clips) {
+        TETile[][] tiles = new TETile[DIRECTIONS.length][];
+        long[] nanos = new long[DIRECTIONS.length];
+        for (Direction dir : DIRECTIONS) {
+            AnimationClip clip = clips.get(dir);
+            tiles[dir.ordinal()] = new TETile[Math.max(1, clip.size())];
+            for (int frame = 0; frame < tiles[dir.ordinal()].length; frame++) {
+                tiles[dir.ordinal()][frame] = new StillTile(tile, clip.size() == 0 ? null : clip.getFrame(frame));
+            }
+            nanos[dir.ordinal()] = clip.getFrameNanos();
+        }
+        this.frameTiles = tiles;
+        this.frameNanos = nanos;
+        for (int i = 0; i < size; i++) {
+            frames[i] = Math.min(frames[i], tiles[dirs[i]].length - 1);
+        }
+    }
+
+    /**
+     * Adds entities at random walkable cells of the world. An entity is left out if no walkable cell turns up
+     * within SPAWN_ATTEMPTS tries.
+     *
+     * @param count how many entities to add
+     * @param world the world's tiles
+     * @return how many entities were added
+     */
+    public int spawn(int count, TETile[][] world) {
+        int spawned = 0;
+        for (int n = 0; n < count; n++) {
+            SplittableRandom rand = streams.stream(RandomStreams.Purpose.NPC_SPAWN, size);
+            for (int attempt = 0; attempt < SPAWN_ATTEMPTS; attempt++) {
+                int x = rand.nextInt(world.length);
+                int y = rand.nextInt(world[0].length);
+                if (isWalkable(world, x, y)) {
+                    add(x, y, DIRECTIONS[rand.nextInt(DIRECTIONS.length)], rand.nextLong(STEP_NANOS));
+                    spawned++;
+                    break;
+                }
+            }
+        }
+        return spawned;
+    }
+
+    private void add(int x, int y, Direction dir, long untilStep) {
+        if (size == xs.length) {
+            int capacity = Math.max(64, size * 2);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            dirs = Arrays.copyOf(dirs, capacity);
+            frames = Arrays.copyOf(frames, capacity);
+            clipNanos = Arrays.copyOf(clipNanos, capacity);
+            untilStepNanos = Arrays.copyOf(untilStepNanos, capacity);
+            steps = Arrays.copyOf(steps, capacity);
+        }
+        xs[size] = x;
+        ys[size] = y;
+        dirs[size] = (byte) dir.ordinal();
+        frames[size] = 0;
+        clipNanos[size] = Long.MAX_VALUE / 2; // Standing still until the first step
+        untilStepNanos[size] = untilStep;
+        steps[size] = 0;
+        size++;
+    }
+
+    /**
+     * Advances every entity by the time passed: animations move on, and entities whose next step is due pick a
+     * direction and take a step if the cell there is walkable. Runs in parallel for large crowds; entities only
+     * write their own slots of the arrays and only read the world, so the result is the same either way.
+     *
+     * @param nanos the nanoseconds passed since the last update
+     * @param world the world's tiles, which are not changed
+     */
+    public void update(long nanos, TETile[][] world) {
+        IntStream indices = IntStream.range(0, size);
+        if (size >= PARALLEL_MIN_ENTITIES) {
+            indices = indices.parallel();
+        }
+        indices.forEach(i -> update(i, nanos, world));
+    }
+
+    private void update(int i, long nanos, TETile[][] world) {
+        untilStepNanos[i] -= nanos;
+        if (untilStepNanos[i] <= 0) {
+            untilStepNanos[i] = Math.max(untilStepNanos[i] + STEP_NANOS, 1);
+            int choice = streams.pick(RandomStreams.Purpose.WANDER, ((long) i << 32) | steps[i]++, 0, DIRECTIONS.length + 1);
+            if (choice < DIRECTIONS.length) { // The last choice stands still
+                Direction dir = DIRECTIONS[choice];
+                int x = xs[i] + Direction.getDx(dir);
+                int y = ys[i] + Direction.getDy(dir);
+                dirs[i] = (byte) choice;
+                clipNanos[i] = 0;
+                nanos = 0;
+                if (isWalkable(world, x, y)) {
+                    xs[i] = x;
+                    ys[i] = y;
+                }
+            }
+        }
+
+        clipNanos[i] += nanos;
+        long frame = clipNanos[i] / frameNanos[dirs[i]];
+        frames[i] = frame < frameTiles[dirs[i]].length ? (int) frame : 0;
+    }
+
+    private static boolean isWalkable(TETile[][] world, int x, int y) {
+        if (x < 0 || y < 0 || x >= world.length || y >= world[0].length) {
+            return false;
+        }
+        TETile tile = world[x][y];
+        return tile.isFloor() || tile.isHallway() || tile.isDoor();
+    }
+
+    /**
+     * Moves every entity by the same amount, e.g. when ChunkedWorld moves its window and the world's cells
+     * shift. Entities that end up outside the world stand still and are not drawn until it comes back.
+     *
+     * @param dx the change in x
+     * @param dy the change in y
+     */
+    public void translate(int dx, int dy) {
+        for (int i = 0; i < size; i++) {
+            xs[i] += dx;
+            ys[i] += dy;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns where an entity is.
+     *
+     * @param i the entity's index
+     * @return the entity's cell
+     */
+    public Point getPos(int i) {
+        return new Point(xs[i], ys[i]);
+    }
+
+    /**
+     * Returns the direction an entity last stepped in.
+     *
+     * @param i the entity's index
+     * @return the entity's direction
+     */
+    public Direction getDirection(int i) {
+        return DIRECTIONS[dirs[i]];
+    }
+
+    /**
+     * Returns the tile an entity is drawn as: the current frame of its direction's clip.
+     *
+     * @param i the entity's index
+     * @return the entity's tile
+     */
+    public TETile getTile(int i) {
+        return frameTiles[dirs[i]][frames[i]];
+    }
+
+    @Override
+    public void draw(TERenderer renderer) {
+        draw(renderer, size, xs, ys, dirs, frames, frameTiles);
+    }
+
+    /**
+     * Copies the entities' positions and frames into an overlay that never changes, for a render thread to draw
+     * while the entities keep moving.
+     *
+     * @return the entities as they are now
+     */
+    public TileOverlay snapshot() {
+        int n = size;
+        int[] x = Arrays.copyOf(xs, n);
+        int[] y = Arrays.copyOf(ys, n);
+        byte[] dir = Arrays.copyOf(dirs, n);
+        int[] frame = Arrays.copyOf(frames, n);
+        TETile[][] tiles = frameTiles;
+        return renderer -> draw(renderer, n, x, y, dir, frame, tiles);
+    }
+
+    private static void draw(TERenderer renderer, int n, int[] xs, int[] ys, byte[] dirs, int[] frames, TETile[][] tiles) {
+        for (int i = 0; i < n; i++) {
+            renderer.drawOverlayTile(xs[i], ys[i], tiles[dirs[i]][frames[i]]);
+        }
+    }
+}
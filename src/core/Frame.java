@@ -5,7 +5,7 @@ import java.io.Serializable;
 
 
 public class Frame implements Serializable {
-    private BufferedImage frame;
+    private final BufferedImage frame;
 
     public Frame(BufferedImage frame) {
         this.frame = frame;
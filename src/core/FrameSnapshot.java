@@ -0,0 +1,110 @@
+package core;
+
+import tileengine.TERenderer;
+import tileengine.TETile;
+import tileengine.TileOverlay;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What the render thread needs to draw a frame, captured by the logic thread after a tick. A snapshot is never
+ * changed once published, and holds no animated tiles, only immutable stills of them, so the logic thread keeps
+ * simulating while the render thread draws.
+ * <p>
+ * A full snapshot carries a copy of every tile, made when the view or the world's array changes. Others carry
+ * only the cells that changed since the previous snapshot; snapshots the render thread has not picked up yet are
+ * merged with the next one, so none of their changes are lost.
+ *
+ * @param tick the number of ticks run when this snapshot was taken
+ * @param renderer the renderer to draw with; it only changes together with a full snapshot
+ * @param tiles a copy of every tile for a full snapshot, handed over to the render thread, or null
+ * @param cells the cells that changed, in the order they changed
+ * @param focus the cell the camera centers on, i.e. the player's position
+ * @param overlay what to draw over the world, which must not change once published, or null
+ * @param ticksPerSecond the tick rate the logic thread achieved, to show with the frame rate
+ */
+public record FrameSnapshot(long tick, TERenderer renderer, TETile[][] tiles, List<Cell> cells, Point focus,
+                            TileOverlay overlay, double ticksPerSecond) {
+
+    /**
+     * The new tile of a changed cell.
+     */
+    public record Cell(int x, int y, TETile tile) {
+    }
+
+    /**
+     * Captures every tile of the world, with stills in place of animated tiles.
+     *
+     * @param tick the number of ticks run so far
+     * @param renderer the renderer to draw with
+     * @param world the world's tiles
+     * @param focus the cell the camera centers on
+     * @param overlay what to draw over the world, or null
+     * @param ticksPerSecond the tick rate achieved
+     * @return a full snapshot
+     */
+    public static FrameSnapshot full(long tick, TERenderer renderer, TETile[][] world, Point focus, TileOverlay overlay,
+                                     double ticksPerSecond) {
+        TETile[][] tiles = new TETile[world.length][];
+        for (int x = 0; x < world.length; x++) {
+            tiles[x] = world[x].clone();
+            for (int y = 0; y < tiles[x].length; y++) {
+                if (tiles[x][y] instanceof AnimatedTETile animated) {
+                    tiles[x][y] = animated.still();
+                }
+            }
+        }
+        return new FrameSnapshot(tick, renderer, tiles, List.of(), new Point(focus), overlay, ticksPerSecond);
+    }
+
+    /**
+     * Captures the cells the animated tiles changed since they last reported them.
+     *
+     * @param tick the number of ticks run so far
+     * @param renderer the renderer to draw with
+     * @param world the world's tiles
+     * @param animatedTiles the tiles that change
+     * @param focus the cell the camera centers on
+     * @param overlay what to draw over the world, or null
+     * @param ticksPerSecond the tick rate achieved
+     * @return a snapshot of the changed cells
+     */
+    public static FrameSnapshot changes(long tick, TERenderer renderer, TETile[][] world, List<? extends AnimatedTETile> animatedTiles,
+                                        Point focus, TileOverlay overlay, double ticksPerSecond) {
+        List<Cell> cells = new ArrayList<>();
+        for (AnimatedTETile animated : animatedTiles) {
+            animated.reportDirtyCells((x, y) -> {
+                TETile tile = world[x][y];
+                cells.add(new Cell(x, y, tile instanceof AnimatedTETile a ? a.still() : tile));
+            });
+        }
+        return new FrameSnapshot(tick, renderer, null, List.copyOf(cells), new Point(focus), overlay, ticksPerSecond);
+    }
+
+    /**
+     * Returns whether this snapshot carries every tile.
+     *
+     * @return true for a full snapshot
+     */
+    public boolean isFull() {
+        return tiles != null;
+    }
+
+    /**
+     * Merges this snapshot with an older one that was never drawn, so that drawing the result is the same as
+     * drawing both in turn.
+     *
+     * @param older the snapshot published before this one
+     * @return the merged snapshot
+     */
+    public FrameSnapshot after(FrameSnapshot older) {
+        if (isFull()) {
+            return this;
+        }
+        List<Cell> merged = new ArrayList<>(older.cells);
+        merged.addAll(cells);
+        return new FrameSnapshot(tick, renderer, older.tiles, List.copyOf(merged), focus, overlay, ticksPerSecond);
+    }
+}
@@ -12,13 +12,19 @@ import java.util.ArrayList;
  * The GameEngine class manages the core game logic, including world generation, rendering, and player interactions.
  */
 public class GameEngine {
+    private static final int NPC_COUNT = Integer.getInteger("island.npcs", 0);
+    private static final TETile NPC = new TETile('N', Color.orange, Color.black, "islander", null, 16);
     private final IslandTileSet tileSet = new IslandTileSet();
-    private final World world;
-    private final int height;
-    private final int width;
+    private final PlayableWorld world;
     private final ArrayList<AnimatedTETile> animatedTiles;
+    private final GameLoop loop = new GameLoop();
+    private final AnimationClock clock = new AnimationClock();
+    private final EntityStore npcs;
     private Player player;
     private TERenderer ter;
+    private RenderThread renderThread;
+    private TERenderer publishedRenderer;
+    private TETile[][] publishedTiles;
     private boolean isometric;
     private boolean prevPressColon;
 
@@ -44,14 +50,25 @@ public class GameEngine {
                       int maxRoomDim,
                       String continuation,
                       int continuePercentage) {
-        this.height = height;
-        this.width = width;
-        this.world = new World(seed, height, width, spread, shape, minRoomDim, maxRoomDim, continuation, continuePercentage, tileSet);
+        this(new WorldParams(seed, height, width, spread, shape, minRoomDim, maxRoomDim, continuation, continuePercentage));
+    }
+
+    /**
+     * Constructs a GameEngine whose world is generated from the specified parameters, or read back from
+     * the world cache if it was generated before. Infinite worlds are streamed in chunks around the player
+     * instead of being generated up front.
+     *
+     * @param params the world creation parameters
+     */
+    public GameEngine(WorldParams params) {
+        this.world = params.isInfinite() ? new ChunkedWorld(params, tileSet) : WorldCache.shared().getOrCreate(params, tileSet);
         this.animatedTiles = new ArrayList<>();
+        this.npcs = new EntityStore(params.getSeed(), NPC, Player.walkClips(tileSet));
     }
 
     /**
-     * Initializes the TERenderer based on the current view mode (isometric or standard).
+     * Initializes the TERenderer based on the current view mode (isometric or standard). While a RenderThread
+     * is running, the renderer is initialized by that thread when it receives the next snapshot.
      */
     public void initializeTERenderer() {
         if (isometric) {
@@ -60,27 +77,52 @@ public class GameEngine {
             this.ter = new TERenderer();
         }
 
-        ter.initialize(width, height);
+        if (renderThread == null) {
+            TETile[][] worldTiles = world.getTiles();
+            ter.initialize(worldTiles.length, worldTiles[0].length);
+            ter.setStaticLayer(true);
+            ter.setOverlay(npcs);
+        }
     }
 
     /**
      * Initializes the game board with the specified player position, view mode, and direction.
      *
-     * @param pos the initial position of the player
+     * @param worldPos the initial position of the player, in world coordinates
      * @param isometric whether the view mode is isometric
      * @param dir the initial direction the player is facing
      */
-    public void initializeGameBoard(Point pos, boolean isometric, Direction dir) {
+    public void initializeGameBoard(Point worldPos, boolean isometric, Direction dir) {
         this.player = new Player(dir, tileSet);
         animatedTiles.add(player);
 
+        Point pos = toTileCoords(worldPos);
         TETile[][] worldTiles = world.getTiles();
+        if (!isWalkable(worldTiles, pos)) {
+            // e.g. a position saved for a differently generated world: start in a room instead
+            pos = toTileCoords(world.getRandomRoomCoords());
+            worldTiles = world.getTiles();
+        }
         player.setPos(pos, worldTiles[pos.x][pos.y]);
+        npcs.spawn(NPC_COUNT, worldTiles);
         if (isometric) {
             switchViews();
         }
     }
 
+    /**
+     * Converts world coordinates to coordinates in getTiles(), moving a ChunkedWorld's window to them if needed.
+     */
+    private Point toTileCoords(Point worldPos) {
+        Point origin = world.getOrigin();
+        return world.recenter(new Point(worldPos.x - origin.x, worldPos.y - origin.y));
+    }
+
+    private static boolean isWalkable(TETile[][] tiles, Point pos) {
+        return pos.x >= 0 && pos.y >= 0 && pos.x < tiles.length && pos.y < tiles[0].length
+                && tiles[pos.x][pos.y].isWalkable();
+    }
+
     /**
      * Initializes the game board with default settings.
      */
@@ -101,8 +143,10 @@ public class GameEngine {
 
         if (isometric) {
             player = new IsometricPlayer(dir, tileSet);
+            npcs.setClips(IsometricPlayer.isometricWalkClips(tileSet));
         } else {
             player = new Player(dir, tileSet);
+            npcs.setClips(Player.walkClips(tileSet));
         }
 
         animatedTiles.add(player);
@@ -119,41 +163,119 @@ public class GameEngine {
     private void paint(boolean render) {
         updateTiles();
         if (render) {
-            ter.renderFrame(world.getTiles(), player.getPos());
+            render();
+        }
+    }
+
+    /**
+     * Renders the current game state, with the loop's tick and frame rates in a corner.
+     */
+    private void render() {
+        ter.setStatus(loop.getReport());
+        ter.renderFrame(world.getTiles(), player.getPos());
+    }
+
+    /**
+     * Publishes the game state to the render thread: every tile when the view or the world's array changed
+     * since the last snapshot, and otherwise only the cells that changed.
+     */
+    private void publish() {
+        TETile[][] tiles = world.getTiles();
+        FrameSnapshot snapshot;
+        if (tiles != publishedTiles || ter != publishedRenderer) {
+            snapshot = FrameSnapshot.full(loop.getTotalTicks(), ter, tiles, player.getPos(), npcs.snapshot(),
+                    loop.getTicksPerSecond());
+            publishedTiles = tiles;
+            publishedRenderer = ter;
+        } else {
+            snapshot = FrameSnapshot.changes(loop.getTotalTicks(), ter, tiles, animatedTiles, player.getPos(),
+                    npcs.snapshot(), loop.getTicksPerSecond());
         }
-        SpriteSheet.clear();
+        renderThread.publish(snapshot);
     }
 
     /**
-     * Executes a game tick, handling key presses and rendering if specified.
+     * Executes a game tick, handling key presses and rendering if specified. When cycling, ticks run at the
+     * GameLoop's fixed rate until the player quits, while a RenderThread renders frames up to the loop's frame
+     * cap from the snapshots published after each tick.
      *
      * @param render whether to render the game
      * @param cycle whether to cycle through game ticks
      * @return false if the game should exit, true otherwise
      */
     public boolean tick(boolean render, boolean cycle) {
-        do {
+        if (!cycle) {
             if (!handleKeyPress()) {
                 return false;
             }
             paint(render);
+            return true;
+        }
 
-        } while (cycle);
-        return true;
+        if (!render) {
+            loop.run(() -> {
+                if (!handleKeyPress()) {
+                    return false;
+                }
+                updateTiles();
+                return true;
+            }, null);
+            return false;
+        }
+
+        renderThread = new RenderThread(ter, GameLoop.DEFAULT_MAX_FRAMES_PER_SECOND);
+        try {
+            publish();
+            renderThread.start();
+            loop.run(() -> {
+                if (!handleKeyPress()) {
+                    return false;
+                }
+                updateTiles();
+                publish();
+                return true;
+            }, null);
+        } finally {
+            renderThread.stop();
+            renderThread = null;
+            publishedTiles = null;
+            publishedRenderer = null;
+        }
+        return false;
     }
 
     /**
-     * Updates the tiles in the game world based on the current state of animated tiles.
+     * Returns the loop running the game's ticks and frames.
+     *
+     * @return the game loop
+     */
+    public GameLoop getLoop() {
+        return loop;
+    }
+
+    /**
+     * Updates the tiles in the game world based on the current state of animated tiles, advancing their
+     * animations by the time passed in one pass first. Wandering NPCs are advanced by the same time, but
+     * are drawn over the world rather than written into it.
      */
     private void updateTiles() {
+        Point pos = player.getPos();
+        Point recentered = world.recenter(pos);
+        if (!recentered.equals(pos)) {
+            // The window moved, so the player's old tile is now at a different index of a fresh array
+            player.setPos(recentered, world.getTiles()[recentered.x][recentered.y]);
+            npcs.translate(recentered.x - pos.x, recentered.y - pos.y);
+        }
+
+        long nanos = clock.advance(animatedTiles);
         TETile[][] worldTiles = world.getTiles();
+        npcs.update(nanos, worldTiles);
         for (AnimatedTETile tile : animatedTiles) {
             Point tilePos = tile.getPos();
-            worldTiles[tilePos.x][tilePos.y] = tile.getPrevTile();
-
-            tile.update();
-            tilePos = tile.getPos();
             worldTiles[tilePos.x][tilePos.y] = tile;
+            if (ter != null && renderThread == null) {
+                tile.reportDirtyCells(ter);
+            }
         }
     }
 
@@ -167,7 +289,7 @@ public class GameEngine {
     }
 
     /**
-     * Handles key presses, updating the game state accordingly.
+     * Handles every key typed since the last tick, updating the game state accordingly.
      *
      * @return false if the game should exit, true otherwise
      */
@@ -177,8 +299,10 @@ public class GameEngine {
             return false;
         }
 
-        if (StdDraw.hasNextKeyTyped()) {
-            return handleKeyPress(StdDraw.nextKeyTyped());
+        while (StdDraw.hasNextKeyTyped()) {
+            if (!handleKeyPress(StdDraw.nextKeyTyped())) {
+                return false;
+            }
         }
         return true;
     }
@@ -231,7 +355,8 @@ public class GameEngine {
      */
     @Override
     public String toString() {
-        Point playerPos = player.getPos();
+        Point origin = world.getOrigin();
+        Point playerPos = new Point(player.getPos().x + origin.x, player.getPos().y + origin.y);
         Direction lastDir = player.getLastDir();
 
         return
@@ -0,0 +1,140 @@
+package core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs the game at a fixed number of logic ticks per second, and renders at most a given number of frames per
+ * second, parking the thread while there is nothing to do. Game logic such as animations therefore runs at the
+ * same speed on every machine, and an idle game no longer keeps a core busy.
+ * <p>
+ * If ticks fall behind, e.g. because a frame took long to render, up to MAX_CATCH_UP_TICKS are run back to back
+ * before the next frame, and the rest are dropped so the game slows down instead of spiraling. The ticks and
+ * frames achieved are counted over windows of a second.
+ */
+public class GameLoop {
+    public static final int DEFAULT_TICKS_PER_SECOND = 20;
+    public static final int DEFAULT_MAX_FRAMES_PER_SECOND = 60;
+    private static final int MAX_CATCH_UP_TICKS = 5;
+    private static final long REPORT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long tickNanos;
+    private final long frameNanos;
+    private volatile double ticksPerSecond;
+    private volatile double framesPerSecond;
+    private volatile long totalTicks;
+    private volatile long totalFrames;
+
+    /**
+     * Constructs a loop running DEFAULT_TICKS_PER_SECOND ticks and at most DEFAULT_MAX_FRAMES_PER_SECOND frames
+     * per second.
+     */
+    public GameLoop() {
+        this(DEFAULT_TICKS_PER_SECOND, DEFAULT_MAX_FRAMES_PER_SECOND);
+    }
+
+    /**
+     * Constructs a loop with the given tick rate and frame cap.
+     *
+     * @param ticksPerSecond the number of logic ticks to run per second
+     * @param maxFramesPerSecond the most frames to render per second
+     */
+    public GameLoop(int ticksPerSecond, int maxFramesPerSecond) {
+        if (ticksPerSecond <= 0 || maxFramesPerSecond <= 0) {
+            throw new IllegalArgumentException("Tick and frame rates must be positive");
+        }
+        this.tickNanos = REPORT_NANOS / ticksPerSecond;
+        this.frameNanos = REPORT_NANOS / maxFramesPerSecond;
+    }
+
+    /**
+     * Runs ticks and renders frames until a tick returns false. Without a render action only ticks are run,
+     * e.g. when frames are rendered on a RenderThread.
+     *
+     * @param tick runs one tick of game logic, returning false to stop the loop
+     * @param render renders one frame, or null
+     */
+    public void run(BooleanSupplier tick, Runnable render) {
+        long now = System.nanoTime();
+        long nextTick = now;
+        long nextFrame = render == null ? Long.MAX_VALUE : now;
+        long windowStart = now;
+        long windowTicks = 0;
+        long windowFrames = 0;
+
+        while (true) {
+            now = System.nanoTime();
+            int caughtUp = 0;
+            while (now - nextTick >= 0 && caughtUp < MAX_CATCH_UP_TICKS) {
+                if (!tick.getAsBoolean()) {
+                    return;
+                }
+                nextTick += tickNanos;
+                caughtUp++;
+                windowTicks++;
+                totalTicks++;
+            }
+            if (now - nextTick >= 0) {
+                nextTick = now + tickNanos; // Too far behind: drop the ticks that were missed
+            }
+
+            if (render != null && now - nextFrame >= 0) {
+                render.run();
+                nextFrame = Math.max(nextFrame + frameNanos, now);
+                windowFrames++;
+                totalFrames++;
+            }
+
+            now = System.nanoTime();
+            if (now - windowStart >= REPORT_NANOS) {
+                double seconds = (now - windowStart) / 1e9;
+                ticksPerSecond = windowTicks / seconds;
+                framesPerSecond = windowFrames / seconds;
+                windowStart = now;
+                windowTicks = 0;
+                windowFrames = 0;
+            }
+
+            long wait = (render == null ? nextTick : Math.min(nextTick, nextFrame)) - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+
+    /**
+     * Returns the ticks per second achieved over the last full second, or 0 before the first second.
+     *
+     * @return the achieved tick rate
+     */
+    public double getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    /**
+     * Returns the frames per second achieved over the last full second, or 0 before the first second.
+     *
+     * @return the achieved frame rate
+     */
+    public double getFramesPerSecond() {
+        return framesPerSecond;
+    }
+
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+
+    public long getTotalFrames() {
+        return totalFrames;
+    }
+
+    /**
+     * Describes the achieved rates, e.g. for display in a corner of the screen.
+     *
+     * @return the tick and frame rates, e.g. "20 TPS  60 FPS"
+     */
+    public String getReport() {
+        return String.format("%.0f TPS  %.0f FPS", ticksPerSecond, framesPerSecond);
+    }
+}
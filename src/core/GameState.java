@@ -12,6 +12,10 @@ import java.nio.file.Files;
  */
 public class GameState {
     private static final String FILENAME = "save.txt";
+    /* Bumped whenever the same creation parameters generate a different world, which makes saved positions
+     * meaningless. Version 2: worlds are generated from RandomStreams. Version 3: hallways are carved from every
+     * unvisited nothing tile, not one per column. */
+    private static final String SAVE_VERSION = "v3";
     private final boolean render;
     private String creationParams;
     private GameEngine engine;
@@ -42,7 +46,7 @@ public class GameState {
      */
     public GameState(boolean render, long seed, int height, int width, String spread, String shape, int minRoomDim, int maxRoomDim, String continuation, int continuePercentage) {
         this.render = render;
-        creationParams = seed + "," + height + "," + width + "," + spread + "," + shape + "," + minRoomDim + "," + maxRoomDim + "," + continuation + "," + continuePercentage;
+        creationParams = new WorldParams(seed, height, width, spread, shape, minRoomDim, maxRoomDim, continuation, continuePercentage).toString();
         engine = engineFromParams(creationParams);
         engine.initializeGameBoard();
         if (render) {
@@ -51,7 +55,8 @@ public class GameState {
     }
 
     /**
-     * Constructs a GameState by loading from a save file.
+     * Constructs a GameState by loading from a save file. Exits if there is no save file, or if it was saved
+     * by a version of the game that generated different worlds.
      *
      * @param render whether to render the game
      */
@@ -63,9 +68,25 @@ public class GameState {
         } catch (IOException ex) {
             System.exit(0);
         }
+        if (!isCurrentVersion(saveString)) {
+            System.err.println("The save file was made by an older version of the game, whose worlds differ; "
+                    + "start a new game instead.");
+            System.exit(0);
+        }
         engine = engineFromSaveString(saveString, render);
     }
 
+    /**
+     * Checks whether a save string was saved by this version of the game.
+     *
+     * @param saveString the save string
+     * @return true if the save string can be loaded
+     */
+    public static boolean isCurrentVersion(String saveString) {
+        String[] split = saveString.strip().split(";");
+        return split.length == 3 && split[0].equals(SAVE_VERSION);
+    }
+
     /**
      * Returns the save string for the current game state.
      *
@@ -74,7 +95,7 @@ public class GameState {
      */
     public String getSaveString(GameEngine engine) {
         String worldState = engine.toString();
-        return creationParams + ";" + worldState;
+        return SAVE_VERSION + ";" + creationParams + ";" + worldState;
     }
 
     /**
@@ -84,18 +105,7 @@ public class GameState {
      * @return the created GameEngine
      */
     private GameEngine engineFromParams(String creationParams) {
-        String[] creationArgs = creationParams.split(",");
-        return engine = new GameEngine(
-                Long.parseLong(creationArgs[0]),
-                Integer.parseInt(creationArgs[1]),
-                Integer.parseInt(creationArgs[2]),
-                creationArgs[3].equals("null") ? null : creationArgs[3],
-                creationArgs[4].equals("null") ? null : creationArgs[4],
-                Integer.parseInt(creationArgs[5]),
-                Integer.parseInt(creationArgs[6]),
-                creationArgs[7].equals("null") ? null : creationArgs[7],
-                Integer.parseInt(creationArgs[8])
-        );
+        return engine = new GameEngine(WorldParams.fromString(creationParams));
     }
 
     /**
@@ -106,10 +116,10 @@ public class GameState {
      * @return the created GameEngine
      */
     private GameEngine engineFromSaveString(String saveString, boolean render) {
-        String[] paramSplit = saveString.split(";");
-        creationParams = paramSplit[0];
+        String[] paramSplit = saveString.strip().split(";");
+        creationParams = paramSplit[1];
         GameEngine engine = engineFromParams(creationParams);
-        String[] worldState = paramSplit[1].split(",");
+        String[] worldState = paramSplit[2].split(",");
         engine.initializeGameBoard(
                 new Point(Integer.parseInt(worldState[1]), Integer.parseInt(worldState[2])),
                 Boolean.parseBoolean(worldState[0]),
@@ -0,0 +1,151 @@
+package core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ordered stages a World is generated by. Stages can be skipped or swapped out by name, and every run
+ * measures each stage's wall-clock time and allocation into a GenerationReport. Each stage also emits a JFR
+ * event, which costs nothing unless a flight recording has the "core.GenerationStage" event enabled.
+ * <p>
+ * Allocation is what the generating thread allocated plus what the world's parallel passes allocated on other
+ * ForkJoinPool threads, so worlds generated at the same time, e.g. by BatchGenerator, are not charged for each
+ * other's allocation.
+ */
+public class GenerationPipeline {
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private final List<GenerationStage> stages;
+
+    /**
+     * Constructs a GenerationPipeline that runs the given stages in order.
+     *
+     * @param stages the stages to run
+     */
+    public GenerationPipeline(List<GenerationStage> stages) {
+        this.stages = new ArrayList<>(stages);
+    }
+
+    /**
+     * Returns a new pipeline with the stages every World is generated by.
+     *
+     * @return the standard pipeline
+     */
+    public static GenerationPipeline standard() {
+        return new GenerationPipeline(World.standardStages());
+    }
+
+    /**
+     * Removes the stage with the given name.
+     *
+     * @param name the name of the stage to skip
+     * @return this pipeline
+     */
+    public GenerationPipeline skip(String name) {
+        stages.remove(indexOf(name));
+        return this;
+    }
+
+    /**
+     * Runs a different stage in place of the stage with the given name.
+     *
+     * @param name the name of the stage to replace
+     * @param stage the stage to run instead
+     * @return this pipeline
+     */
+    public GenerationPipeline replace(String name, GenerationStage stage) {
+        stages.set(indexOf(name), stage);
+        return this;
+    }
+
+    public List<String> getStageNames() {
+        return stages.stream().map(GenerationStage::getName).toList();
+    }
+
+    /**
+     * Runs every stage on a world.
+     *
+     * @param world the world to generate
+     * @return the measurements of each stage
+     */
+    public GenerationReport run(World world) {
+        List<GenerationReport.StageResult> results = new ArrayList<>(stages.size());
+        for (GenerationStage stage : stages) {
+            StageEvent event = new StageEvent();
+            event.begin();
+            long allocatedBefore = currentThreadAllocatedBytes();
+            long workersBefore = world.getWorkerAllocatedBytes();
+            long start = System.nanoTime();
+
+            stage.run(world);
+
+            long nanos = System.nanoTime() - start;
+            long allocated = allocatedBefore < 0 ? -1
+                    : currentThreadAllocatedBytes() - allocatedBefore + world.getWorkerAllocatedBytes() - workersBefore;
+            event.end();
+            if (event.shouldCommit()) {
+                event.stage = stage.getName();
+                event.worldWidth = world.width;
+                event.worldHeight = world.height;
+                event.allocatedBytes = allocated;
+                event.commit();
+            }
+            results.add(new GenerationReport.StageResult(stage.getName(), nanos, allocated));
+        }
+        return new GenerationReport(results);
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < stages.size(); i++) {
+            if (stages.get(i).getName().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No generation stage named " + name);
+    }
+
+    /**
+     * Returns how many bytes the current thread has allocated so far.
+     *
+     * @return the bytes allocated, or -1 if the JVM cannot measure it
+     */
+    static long currentThreadAllocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        }
+        return null;
+    }
+
+    @Name("core.GenerationStage")
+    @Label("World Generation Stage")
+    @Category("Isometric Island")
+    @Description("One stage of generating a World")
+    static class StageEvent extends Event {
+        @Label("Stage")
+        String stage;
+
+        @Label("World Width")
+        int worldWidth;
+
+        @Label("World Height")
+        int worldHeight;
+
+        @Label("Allocated")
+        @DataAmount
+        long allocatedBytes;
+    }
+}
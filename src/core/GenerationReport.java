@@ -0,0 +1,59 @@
+package core;
+
+import java.util.List;
+
+/**
+ * How long each stage of one world's generation took and how much it allocated. Allocation counts the
+ * generating thread and the workers of the world's own parallel passes, and is -1 where the JVM cannot
+ * measure it.
+ */
+public class GenerationReport {
+    private final List<StageResult> stages;
+
+    /**
+     * The measurements of one stage.
+     *
+     * @param name the stage's name
+     * @param nanos the wall-clock time the stage took
+     * @param allocatedBytes the bytes the stage allocated, or -1 if unknown
+     */
+    public record StageResult(String name, long nanos, long allocatedBytes) {
+    }
+
+    public GenerationReport(List<StageResult> stages) {
+        this.stages = List.copyOf(stages);
+    }
+
+    public List<StageResult> getStages() {
+        return stages;
+    }
+
+    public long getTotalNanos() {
+        return stages.stream().mapToLong(StageResult::nanos).sum();
+    }
+
+    public long getTotalAllocatedBytes() {
+        return stages.stream().anyMatch(stage -> stage.allocatedBytes() < 0) ? -1
+                : stages.stream().mapToLong(StageResult::allocatedBytes).sum();
+    }
+
+    /**
+     * Returns a table with one line per stage followed by the totals.
+     *
+     * @return the printable summary
+     */
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder(String.format("%-26s %10s %14s%n", "Stage", "Time (ms)", "Allocated (KB)"));
+        for (StageResult stage : stages) {
+            summary.append(formatLine(stage.name(), stage.nanos(), stage.allocatedBytes()));
+        }
+        summary.append(formatLine("total", getTotalNanos(), getTotalAllocatedBytes()));
+        return summary.toString();
+    }
+
+    private static String formatLine(String name, long nanos, long allocatedBytes) {
+        String allocated = allocatedBytes < 0 ? "n/a" : String.format("%.1f", allocatedBytes / 1024.0);
+        return String.format("%-26s %10.3f %14s%n", name, nanos / 1e6, allocated);
+    }
+}
@@ -0,0 +1,45 @@
+package core;
+
+import java.util.function.Consumer;
+
+/**
+ * One pass of world generation, such as placing rooms or carving hallways. Stages run in order on a World
+ * whose settings have already been resolved from its seed, and work on the world through its grid.
+ */
+public interface GenerationStage {
+
+    /**
+     * Returns the name the stage is reported, skipped and replaced by.
+     *
+     * @return the stage's name
+     */
+    String getName();
+
+    /**
+     * Runs the stage.
+     *
+     * @param world the world being generated
+     */
+    void run(World world);
+
+    /**
+     * Creates a stage from a name and a pass.
+     *
+     * @param name the stage's name
+     * @param pass the work the stage does
+     * @return the stage
+     */
+    static GenerationStage of(String name, Consumer<World> pass) {
+        return new GenerationStage() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public void run(World world) {
+                pass.accept(world);
+            }
+        };
+    }
+}
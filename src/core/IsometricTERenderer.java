@@ -1,11 +1,13 @@
 package core;
 
-import edu.princeton.cs.algs4.StdDraw;
+import tileengine.RenderTarget;
 import tileengine.TERenderer;
 import tileengine.TETile;
 
 import java.awt.*;
 import java.awt.event.KeyEvent;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * The IsometricTERenderer class extends the TERenderer class to provide isometric rendering capabilities.
@@ -14,9 +16,23 @@ import java.awt.event.KeyEvent;
 public class IsometricTERenderer extends TERenderer {
     private final int ORIGINAL_TILE_HEIGHT = 32;
     private final int ORIGINAL_TILE_WIDTH = 32;
+    private final int CULL_MARGIN = 32; // Pixels drawn beyond each edge of the canvas; half the widest tile image
     private int tileWidth;
     private int tileHeight;
     private double zoomFactor = 1.0;
+    /* Projections of the current world, by tile size, which the zoom factor determines */
+    private final Map<Integer, Projection> projections = new HashMap<>();
+    private Projection projection;
+
+    /**
+     * The screen coordinates of every tile for one tile size, relative to the offsets. A tile's isometric x
+     * depends only on x - y and its isometric y only on x + y, so one table of each covers the whole world.
+     *
+     * @param isoX the isometric x of the tiles with x - y = d, at index d + numYTiles - 1
+     * @param isoY the isometric y of the tiles with x + y = s, at index s
+     */
+    private record Projection(int[] isoX, int[] isoY) {
+    }
 
     /**
      * Constructs an IsometricTERenderer with default settings.
@@ -25,6 +41,17 @@ public class IsometricTERenderer extends TERenderer {
         super();
     }
 
+    /**
+     * Constructs an IsometricTERenderer that draws to the given target.
+     *
+     * @param target where to draw and read input from
+     * @param canvasWidth the width of the canvas in pixels
+     * @param canvasHeight the height of the canvas in pixels
+     */
+    public IsometricTERenderer(RenderTarget target, int canvasWidth, int canvasHeight) {
+        super(target, canvasWidth, canvasHeight);
+    }
+
     /**
      * Initializes the renderer with the specified width and height.
      *
@@ -37,6 +64,24 @@ public class IsometricTERenderer extends TERenderer {
         tileHeight = ORIGINAL_TILE_HEIGHT;
 
         super.initialize(w, h);
+        projections.clear();
+        updateProjection();
+    }
+
+    /**
+     * Switches to the projection of the current tile size, computing it the first time the size is used.
+     */
+    private void updateProjection() {
+        projection = projections.computeIfAbsent(projectionKey(), key -> {
+            int[] isoX = new int[numXTiles + numYTiles - 1];
+            int[] isoY = new int[numXTiles + numYTiles - 1];
+            for (int i = 0; i < isoX.length; i++) {
+                int d = i - (numYTiles - 1);
+                isoX[i] = d * tileWidth / 2;
+                isoY[i] = i * tileHeight / 4;
+            }
+            return new Projection(isoX, isoY);
+        });
     }
 
     /**
@@ -48,8 +93,8 @@ public class IsometricTERenderer extends TERenderer {
      */
     @Override
     public void renderFrame(TETile[][] world, Point playerPos) {
-        if (StdDraw.isKeyPressed(KeyEvent.VK_PLUS) || StdDraw.isKeyPressed(KeyEvent.VK_EQUALS)
-                || StdDraw.isKeyPressed(KeyEvent.VK_MINUS) || StdDraw.isKeyPressed(KeyEvent.VK_Z)) {
+        if (target.isKeyPressed(KeyEvent.VK_PLUS) || target.isKeyPressed(KeyEvent.VK_EQUALS)
+                || target.isKeyPressed(KeyEvent.VK_MINUS) || target.isKeyPressed(KeyEvent.VK_Z)) {
             handleZooming();
         }
 
@@ -60,44 +105,75 @@ public class IsometricTERenderer extends TERenderer {
 
         verifyOffsets();
 
-        StdDraw.clear(new Color(0, 0, 0));
-        drawTiles(world);
+        target.clear(new Color(0, 0, 0));
+        drawWorld(world);
+        drawOverlay();
         handleCursor(world);
-        StdDraw.show();
+        displayStatus();
+        target.show();
     }
 
     /**
-     * Draws the tiles of the world in isometric view.
-     *
-     * @param world the 2D array representing the world
+     * Draws the tiles of the world in isometric view, back to front: tiles further up the screen, with a larger
+     * x + y, are drawn first so that the tiles in front of them cover their sides.
+     * <p>
+     * Only the tiles within CULL_MARGIN of the region are visited. The region is a rectangle on screen, which
+     * is a range of x - y across and a range of x + y up, i.e. a diamond of the world; each diagonal x + y = s
+     * is walked only over the x whose x - y falls in that range.
      */
     @Override
-    public void drawTiles(TETile[][] world) {
-        for (int x = 0; x < numXTiles; x++) {
-            for (int y = 0; y < numYTiles; y++) {
+    protected void drawRegion(TETile[][] world, RenderTarget target, int xOffset, int yOffset,
+                              int left, int bottom, int right, int top) {
+        int[] isoX = projection.isoX();
+        int[] isoY = projection.isoY();
+        // isoX = d * tileWidth / 2 and isoY = s * tileHeight / 4, give or take a pixel of rounding
+        int width = Math.max(1, tileWidth);
+        int height = Math.max(1, tileHeight);
+        int minD = Math.max(-(numYTiles - 1), Math.floorDiv(2 * (left - CULL_MARGIN - xOffset), width) - 1);
+        int maxD = Math.min(numXTiles - 1, Math.ceilDiv(2 * (right + CULL_MARGIN - xOffset), width) + 1);
+        int minS = Math.max(0, Math.floorDiv(4 * (bottom - CULL_MARGIN - yOffset), height) - 1);
+        int maxS = Math.min(numXTiles + numYTiles - 2, Math.ceilDiv(4 * (top + CULL_MARGIN - yOffset), height) + 1);
+
+        for (int s = maxS; s >= minS; s--) {
+            int minX = Math.max(Math.max(0, s - (numYTiles - 1)), Math.ceilDiv(s + minD, 2));
+            int maxX = Math.min(Math.min(numXTiles - 1, s), Math.floorDiv(s + maxD, 2));
+            for (int x = maxX; x >= minX; x--) {
+                int y = s - x;
                 if (world[x][y] == null) {
                     throw new IllegalArgumentException("Tile at position x=" + x + ", y=" + y
                             + " is null.");
                 }
-                int[] isoCoords = cartesianToIsometric(new int[]{x, y});
-                world[x][y].draw(isoCoords[0] + x_Offset, isoCoords[1] + y_Offset);
+                world[x][y].draw(target, isoX[x - y + numYTiles - 1] + xOffset, isoY[s] + yOffset);
             }
         }
     }
 
     /**
-     * Converts cartesian coordinates to isometric coordinates.
-     *
-     * @param cartesianCoords the cartesian coordinates
-     * @return the isometric coordinates
+     * Tiles are placed by the projection of the current tile size, so static layers are kept per tile size.
      */
-    private int[] cartesianToIsometric(int[] cartesianCoords) {
-        int x = cartesianCoords[0];
-        int y = cartesianCoords[1];
+    @Override
+    protected int projectionKey() {
+        return (tileWidth << 16) | tileHeight;
+    }
 
-        int isoX = (x - y) * tileWidth / 2;
-        int isoY = (x + y) * tileHeight / 4;
-        return new int[]{isoX, isoY};
+    @Override
+    protected int cellX(int x, int y) {
+        return projection.isoX()[x - y + numYTiles - 1];
+    }
+
+    @Override
+    protected int cellY(int x, int y) {
+        return projection.isoY()[x + y];
+    }
+
+    /**
+     * The bounds of the cell's tile image relative to where the cell is drawn: tile images are at most 64
+     * pixels wide (hallways) and 32 high, and are centered on the cell.
+     */
+    @Override
+    protected Rectangle cellBounds(int x, int y) {
+        return new Rectangle(projection.isoX()[x - y + numYTiles - 1] - CULL_MARGIN - 1,
+                projection.isoY()[x + y] - ORIGINAL_TILE_HEIGHT / 2 - 1, 2 * CULL_MARGIN + 2, ORIGINAL_TILE_HEIGHT + 2);
     }
 
     /**
@@ -106,9 +182,8 @@ public class IsometricTERenderer extends TERenderer {
      * @param playerPos the position of the player
      */
     private void centerOnPlayer(Point playerPos) {
-        int[] isoCoords = cartesianToIsometric(new int[]{playerPos.x, playerPos.y});
-        x_Offset = CANVAS_WIDTH / 2 - isoCoords[0];
-        y_Offset = CANVAS_HEIGHT / 2 - isoCoords[1];
+        x_Offset = CANVAS_WIDTH / 2 - projection.isoX()[playerPos.x - playerPos.y + numYTiles - 1];
+        y_Offset = CANVAS_HEIGHT / 2 - projection.isoY()[playerPos.x + playerPos.y];
     }
 
     /**
@@ -134,8 +209,8 @@ public class IsometricTERenderer extends TERenderer {
      * @param world the 2D array representing the world
      */
     private void handleCursor(TETile[][] world) {
-        int mouseX = (int) StdDraw.mouseX();
-        int mouseY = (int) StdDraw.mouseY();
+        int mouseX = (int) target.mouseX();
+        int mouseY = (int) target.mouseY();
         int[] tilePos = isometricScreenToGrid(mouseX, mouseY);
 
         int tileX = tilePos[0];
@@ -151,15 +226,25 @@ public class IsometricTERenderer extends TERenderer {
      * Handles zooming based on user input.
      */
     private void handleZooming() {
-        if (StdDraw.isKeyPressed(KeyEvent.VK_PLUS) || StdDraw.isKeyPressed(KeyEvent.VK_EQUALS)) { // '+' key
-            zoomFactor = Math.min(1.27, zoomFactor * 1.05);
-        } else if (StdDraw.isKeyPressed(KeyEvent.VK_MINUS)) { // '-' key
-            zoomFactor = Math.max(0.75, zoomFactor / 1.05);
+        if (target.isKeyPressed(KeyEvent.VK_PLUS) || target.isKeyPressed(KeyEvent.VK_EQUALS)) { // '+' key
+            setZoomFactor(Math.min(1.27, zoomFactor * 1.05));
+        } else if (target.isKeyPressed(KeyEvent.VK_MINUS)) { // '-' key
+            setZoomFactor(Math.max(0.75, zoomFactor / 1.05));
         } else {
-            zoomFactor = 1;
+            setZoomFactor(1);
         }
+    }
+
+    /**
+     * Zooms to the given factor, between 0.75 and 1.27 when zooming with the keyboard.
+     *
+     * @param zoomFactor the tile size relative to the original 32x32 tiles
+     */
+    public void setZoomFactor(double zoomFactor) {
+        this.zoomFactor = zoomFactor;
         tileWidth = (int) (ORIGINAL_TILE_WIDTH * zoomFactor);
         tileHeight = (int) (ORIGINAL_TILE_HEIGHT * zoomFactor);
+        updateProjection();
         updateOffsets();
     }
 
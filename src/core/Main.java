@@ -5,6 +5,8 @@ import tileengine.TETile;
 
 import java.awt.*;
 import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.util.Arrays;
 
 public class Main {
     private static final int WIDTH = 80;
@@ -13,9 +15,19 @@ public class Main {
     /**
      * The main method initializes the display and starts the game in either interactive or batch mode.
      *
-     * @param args command-line arguments, where the first argument can be a seed for batch mode
+     * @param args command-line arguments, where the first argument can be a seed for batch mode, or
+     *             --batch followed by BatchGenerator options to generate many worlds without a display, or
+     *             --search followed by SeedSearch options to find seeds whose worlds match constraints
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--search")) {
+            SeedSearch.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         initializeDisplay();
         System.out.println("args=" + args.length);
         if (args.length == 0) {
@@ -154,7 +166,7 @@ public class Main {
      * @return the GameState initialized with the entered custom settings
      */
     private static GameState promptForCustomSettings() {
-        String shape = promptForOption("Shape (rectangular, circular, cubic)", "rectangular").toLowerCase();
+        String shape = promptForOption("Shape (rectangular, circular, cubic, infinite)", "rectangular").toLowerCase();
         String spread = promptForOption("Spread (packed, scattered)", "packed").toLowerCase();
         int width = promptForInt("Width", 150);
         int height = promptForInt("Height", 75);
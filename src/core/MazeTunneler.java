@@ -0,0 +1,177 @@
+package core;
+
+import tileengine.IslandTileSet;
+import tileengine.TileGrid;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Carves the maze of hallways between rooms. The carving is a randomized depth-first search over every
+ * other tile, run from each unvisited nothing or door tile. Each search draws from its own stream, picked
+ * by the tile it starts from, so a search carves the same way however many numbers earlier ones used.
+ * <p>
+ * Generation spends most of its allocations here on large maps, so the search works on primitives only:
+ * cells are packed with their direction into ints on a reusable int stack, and the four random swaps of a
+ * direction shuffle are looked up in a table of every possible outcome. A single Random is reseeded for
+ * each search rather than creating one per start.
+ */
+public class MazeTunneler {
+    // Direction ordinals: UP, DOWN, LEFT, RIGHT
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {1, -1, 0, 0};
+    private static final int NO_DIRECTION = 4;
+    private static final int DIRECTION_BITS = 3;
+
+    /**
+     * The order Direction.getShuffledDirections returns for each of its 4^4 possible draws, four entries
+     * per draw. The draw is indexed by its four nextInt(4) results, first result in the highest bits.
+     */
+    private static final byte[] PERMUTATIONS = new byte[256 * 4];
+
+    static {
+        for (int draw = 0; draw < 256; draw++) {
+            byte[] directions = {0, 1, 2, 3};
+            for (int i = 0; i < directions.length; i++) {
+                int randomIndex = (draw >> (6 - 2 * i)) & 3;
+                byte temp = directions[i];
+                directions[i] = directions[randomIndex];
+                directions[randomIndex] = temp;
+            }
+            System.arraycopy(directions, 0, PERMUTATIONS, draw * 4, 4);
+        }
+    }
+
+    private final TileGrid grid;
+    private final RandomStreams streams;
+    private final Random rand = new Random();
+    private final int continuePercentage;
+    private final int width;
+    private final int height;
+    private final int minX;
+    private final int minY;
+    private final int maxX; // Exclusive
+    private final int maxY; // Exclusive
+
+    private final BitSet visited;
+    private int[] stack = new int[64];
+
+    /**
+     * Constructs a MazeTunneler.
+     *
+     * @param grid the grid to carve hallways into
+     * @param streams the world's random streams
+     * @param innerBounds the area hallways may reach
+     * @param continuePercentage the chance, out of 100, that a hallway keeps its direction
+     */
+    public MazeTunneler(TileGrid grid, RandomStreams streams, Rectangle innerBounds, int continuePercentage) {
+        this.grid = grid;
+        this.streams = streams;
+        this.continuePercentage = continuePercentage;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.minX = innerBounds.x;
+        this.minY = innerBounds.y;
+        // Rectangle.contains is false everywhere for a negative size
+        boolean empty = innerBounds.width < 0 || innerBounds.height < 0;
+        this.maxX = empty ? minX : innerBounds.x + innerBounds.width;
+        this.maxY = empty ? minY : innerBounds.y + innerBounds.height;
+        this.visited = new BitSet(width * height);
+    }
+
+    /**
+     * Tunnels from every odd position that is still a nothing or door tile.
+     */
+    public void carve() {
+        for (int i = 1; i < width - 1; i += 2) {
+            for (int j = 1; j < height - 1; j += 2) {
+                if (grid.isNothing(i, j) || grid.isDoor(i, j)) {
+                    tunnel(i, j);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the depth-first search from one starting position.
+     *
+     * @param startX the starting x-coordinate
+     * @param startY the starting y-coordinate
+     */
+    private void tunnel(int startX, int startY) {
+        rand.setSeed(streams.seedFor(RandomStreams.Purpose.TUNNELS, grid.index(startX, startY)));
+        int size = 0;
+        stack[size++] = (grid.index(startX, startY) << DIRECTION_BITS) | NO_DIRECTION;
+        boolean biasNextVisit = false;
+
+        while (size > 0) {
+            int entry = stack[--size];
+            int cell = entry >>> DIRECTION_BITS;
+            int lastDir = entry & ((1 << DIRECTION_BITS) - 1);
+            int x = cell / height;
+            int y = cell % height;
+
+            // Same draws, in the same order, as Direction.getShuffledDirections
+            int draw = rand.nextInt(4) << 6;
+            draw |= rand.nextInt(4) << 4;
+            draw |= rand.nextInt(4) << 2;
+            draw |= rand.nextInt(4);
+
+            for (int i = draw * 4; i < draw * 4 + 4; i++) {
+                int dir = PERMUTATIONS[i];
+                if (biasNextVisit && dir == lastDir) continue;
+                size = tryTunnel(x, y, dir, size);
+            }
+
+            if (biasNextVisit) {
+                size = tryTunnel(x, y, lastDir, size);
+            }
+
+            biasNextVisit = rand.nextInt(100) < continuePercentage;
+        }
+    }
+
+    /**
+     * Carves two tiles in the given direction and pushes the tile reached, if it can be tunneled to.
+     *
+     * @param x the current x-coordinate
+     * @param y the current y-coordinate
+     * @param dir the direction ordinal to tunnel in
+     * @param size the current stack size
+     * @return the new stack size
+     */
+    private int tryTunnel(int x, int y, int dir, int size) {
+        int nx = x + 2 * DX[dir];
+        int ny = y + 2 * DY[dir];
+        if (!canTunnel(nx, ny)) {
+            return size;
+        }
+
+        visited.set(grid.index(x, y));
+        for (int step = 1; step <= 2; step++) {
+            int px = x + step * DX[dir];
+            int py = y + step * DY[dir];
+            if (!grid.isDoor(px, py)) {
+                grid.set(px, py, TileGrid.HALLWAY, IslandTileSet.HALLWAY_PATH);
+            }
+        }
+
+        if (size == stack.length) {
+            stack = Arrays.copyOf(stack, size * 2);
+        }
+        stack[size++] = (grid.index(nx, ny) << DIRECTION_BITS) | dir;
+        return size;
+    }
+
+    /**
+     * Checks if a tunnel can be created at the given position: it must be inside the inner bounds and be
+     * an unvisited door or nothing tile.
+     */
+    private boolean canTunnel(int x, int y) {
+        if (x < minX || y < minY || x >= maxX || y >= maxY) return false;
+
+        return (grid.isDoor(x, y) || grid.isNothing(x, y)) && !visited.get(grid.index(x, y));
+    }
+}
@@ -0,0 +1,54 @@
+package core;
+
+import tileengine.TETile;
+
+import java.awt.*;
+
+/**
+ * What GameEngine plays on: a window of tiles that the player moves through and the renderer draws.
+ * A bounded World shows all of its tiles at once, while a streaming world moves its window to follow
+ * the player. Positions stored in save files are world coordinates; positions in getTiles() are relative
+ * to getOrigin().
+ */
+public interface PlayableWorld {
+
+    /**
+     * Returns the tiles currently in the window.
+     *
+     * @return the window's tiles
+     */
+    TETile[][] getTiles();
+
+    /**
+     * Switches the tiles between isometric and standard images.
+     *
+     * @param isometric whether to use isometric images
+     */
+    void switchViews(boolean isometric);
+
+    /**
+     * Returns a position inside a room, in world coordinates.
+     *
+     * @return a position inside a room
+     */
+    Point getRandomRoomCoords();
+
+    /**
+     * Returns the world coordinates of getTiles()[0][0].
+     *
+     * @return the window's origin
+     */
+    default Point getOrigin() {
+        return new Point(0, 0);
+    }
+
+    /**
+     * Moves the window, if needed, so that it surrounds the given position.
+     *
+     * @param pos a position relative to the current window, possibly outside of it
+     * @return the same position relative to the window after the move
+     */
+    default Point recenter(Point pos) {
+        return pos;
+    }
+}
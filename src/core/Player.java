@@ -4,6 +4,7 @@ import tileengine.IslandTileSet;
 import tileengine.TETile;
 
 import java.awt.*;
+import java.util.Map;
 
 /**
  * The Player class represents a player character in the game.
@@ -14,6 +15,10 @@ public class Player extends AnimatedTETile {
     private static final int[][] walkFacingNorthStd = new int[][]{new int[]{0, 1}, new int[]{1, 1}, new int[]{2, 1}, new int[]{3, 1}, new int[]{4, 1}};
     private static final int[][] walkFacingEastStd = new int[][]{new int[]{0, 3}, new int[]{1, 3}, new int[]{2, 3}, new int[]{3, 3}, new int[]{4, 3}};
     private static final int[][] walkFacingWestStd = new int[][]{new int[]{0, 2}, new int[]{1, 2}, new int[]{2, 2}, new int[]{3, 2}, new int[]{4, 2}};
+    private static final Map<Direction, int[][]> walkStd = Map.of(Direction.UP, walkFacingNorthStd,
+            Direction.DOWN, walkFacingSouthStd, Direction.RIGHT, walkFacingEastStd, Direction.LEFT, walkFacingWestStd);
+    private static final double WALK_FRAMES_PER_SECOND = 10;
+    private final Map<Direction, AnimationClip> walkClips;
     protected Direction lastDir;
 
     /**
@@ -22,10 +27,7 @@ public class Player extends AnimatedTETile {
      * @param tileSet the IslandTileSet used for the player's sprite sheet
      */
     public Player(IslandTileSet tileSet) {
-        super('P', Color.pink, Color.black, "player", 15,
-                tileSet.getPlayerSpriteSheetPath(),
-                walkFacingSouthStd, 0, 16, 16, 1);
-        lastDir = Direction.DOWN;
+        this(Direction.DOWN, tileSet);
     }
 
     /**
@@ -35,24 +37,30 @@ public class Player extends AnimatedTETile {
      * @param tileSet the IslandTileSet used for the player's sprite sheet
      */
     public Player(Direction dir, IslandTileSet tileSet) {
-        this(tileSet);
-        switchAnimation(getAnimation(dir));
+        this(15, walkClips(tileSet), dir);
+    }
+
+    /**
+     * Returns the shared standard-view walking clip for each direction.
+     *
+     * @param tileSet the IslandTileSet used for the player's sprite sheet
+     * @return the walking clips
+     */
+    public static Map<Direction, AnimationClip> walkClips(IslandTileSet tileSet) {
+        return ClipRegistry.directional(tileSet.getPlayerSpriteSheetPath(), "walkStd", 16, 16, walkStd, WALK_FRAMES_PER_SECOND);
     }
 
     /**
      * Constructs a Player with the specified parameters.
      *
-     * @param tilesetFilepath the file path to the player's sprite sheet
-     * @param defaultAnimation the default animation frames
-     * @param delay the delay between animation frames
-     * @param tileWidth the width of each tile in the sprite sheet
-     * @param tileHeight the height of each tile in the sprite sheet
-     * @param cycles the number of cycles for the animation
+     * @param id the player tile's ID
+     * @param walkClips the shared walking clip for each direction
+     * @param dir the initial direction the player is facing
      */
-    public Player(String tilesetFilepath, int[][] defaultAnimation, int delay, int tileWidth, int tileHeight, int cycles) {
-        super('P', Color.pink, Color.black, "player", 1,
-                tilesetFilepath,
-                defaultAnimation, delay, tileWidth, tileHeight, cycles);
+    protected Player(int id, Map<Direction, AnimationClip> walkClips, Direction dir) {
+        super('P', Color.pink, Color.black, "player", id, walkClips.get(dir), 1);
+        this.walkClips = walkClips;
+        this.lastDir = dir;
     }
 
     /**
@@ -63,31 +71,12 @@ public class Player extends AnimatedTETile {
      */
     @Override
     public void move(Direction dir, TETile[][] world) {
-        switchAnimation(getAnimation(dir));
+        lastDir = dir;
+        switchAnimation(walkClips.get(dir));
         super.start();
         moveLocation(dir, world);
     }
 
-    /**
-     * Returns the animation frames for the specified direction.
-     *
-     * @param dir the direction the player is facing
-     * @return the animation frames for the specified direction
-     */
-    private int[][] getAnimation(Direction dir) {
-        lastDir = dir;
-        if (dir.equals(Direction.UP)) {
-            return walkFacingNorthStd;
-        } else if (dir.equals(Direction.DOWN)) {
-            return walkFacingSouthStd;
-        } else if (dir.equals(Direction.RIGHT)) {
-            return walkFacingEastStd;
-        } else if (dir.equals(Direction.LEFT)) {
-            return walkFacingWestStd;
-        }
-        return null; // never reached
-    }
-
     /**
      * Moves the player's location in the specified direction.
      *
@@ -0,0 +1,76 @@
+package core;
+
+import java.util.SplittableRandom;
+
+/**
+ * The tree of random streams grown from a world seed. Every part of generation that makes random choices
+ * draws from its own stream, picked by what the choice is for and an id such as a room id or a tile index.
+ * No stream depends on how many numbers another one used, so parts can run in any order, or concurrently,
+ * and still make the same choices for the same seed.
+ */
+public class RandomStreams {
+    private final long seed;
+
+    /**
+     * What a stream's choices are for. Streams with the same id but different purposes are unrelated.
+     */
+    public enum Purpose {
+        SETTINGS, ROOMS, DOORS, TUNNELS, VARIANTS, COLUMN_VARIANTS, SPAWN, NPC_SPAWN, WANDER
+    }
+
+    public RandomStreams(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the seed of the stream for a purpose and id.
+     *
+     * @param purpose what the stream is for
+     * @param id which of the purpose's streams
+     * @return the stream's seed
+     */
+    public long seedFor(Purpose purpose, long id) {
+        return mix(mix(seed ^ (purpose.ordinal() + 1) * 0x9E3779B97F4A7C15L) + id);
+    }
+
+    /**
+     * Returns a new generator for the stream of a purpose and id.
+     *
+     * @param purpose what the stream is for
+     * @param id which of the purpose's streams
+     * @return the stream's generator
+     */
+    public SplittableRandom stream(Purpose purpose, long id) {
+        return new SplittableRandom(seedFor(purpose, id));
+    }
+
+    /**
+     * Picks a number in [origin, bound) from a purpose and id alone, without creating a generator. Used for
+     * the many one-off choices, such as which image a wall tile shows.
+     *
+     * @param purpose what the choice is for
+     * @param id which choice
+     * @param origin the smallest possible result
+     * @param bound the result's exclusive upper bound
+     * @return the chosen number
+     */
+    public int pick(Purpose purpose, long id, int origin, int bound) {
+        return origin + (int) (((seedFor(purpose, id) >>> 32) * (bound - origin)) >>> 32);
+    }
+
+    /**
+     * SplitMix64 finalizer, used to derive well-spread seeds from related values.
+     *
+     * @param z the value to mix
+     * @return the mixed value
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,161 @@
+package core;
+
+import tileengine.TERenderer;
+import tileengine.TETile;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Renders frames on a thread of its own, so that the logic thread handles input and runs ticks without waiting
+ * for frames to be drawn.
+ * <p>
+ * The logic thread publishes a FrameSnapshot after each tick into a single slot. Publishing never blocks: it
+ * replaces the snapshot waiting in the slot, merged into the new one, with a compare-and-set. The render thread
+ * takes whatever snapshot is waiting when it starts a frame, applies it to its own copy of the tiles and draws
+ * that copy. It renders at most a given number of frames per second whether or not a new snapshot arrived, so
+ * the camera can pan while the player stands still.
+ */
+public class RenderThread {
+    private static final long REPORT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicReference<FrameSnapshot> slot = new AtomicReference<>();
+    private final long frameNanos;
+    private final Thread thread;
+    private volatile boolean running;
+    private volatile long renderedTick = -1;
+    private volatile long frames;
+    private volatile double framesPerSecond;
+
+    /* Owned by the render thread */
+    private TERenderer renderer;
+    private TETile[][] tiles;
+    private Point focus;
+    private double ticksPerSecond;
+
+    /**
+     * Constructs a render thread, not started yet.
+     *
+     * @param renderer the renderer to draw with until a snapshot brings another, already initialized
+     * @param maxFramesPerSecond the most frames to render per second
+     */
+    public RenderThread(TERenderer renderer, int maxFramesPerSecond) {
+        this.renderer = renderer;
+        this.frameNanos = REPORT_NANOS / maxFramesPerSecond;
+        this.thread = new Thread(this::run, "render");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Hands a snapshot to the render thread; it is drawn from the next frame on. Called by the logic thread.
+     *
+     * @param snapshot the latest state of the game
+     */
+    public void publish(FrameSnapshot snapshot) {
+        while (true) {
+            FrameSnapshot waiting = slot.get();
+            FrameSnapshot next = waiting == null ? snapshot : snapshot.after(waiting);
+            if (slot.compareAndSet(waiting, next)) {
+                return;
+            }
+        }
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops rendering, returning once the frame being drawn is finished.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the tick of the latest snapshot drawn, or -1 before the first frame.
+     *
+     * @return the tick drawn last
+     */
+    public long getRenderedTick() {
+        return renderedTick;
+    }
+
+    public long getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * Returns the frames per second achieved over the last full second, or 0 before the first second.
+     *
+     * @return the achieved frame rate
+     */
+    public double getFramesPerSecond() {
+        return framesPerSecond;
+    }
+
+    private void run() {
+        long nextFrame = System.nanoTime();
+        long windowStart = nextFrame;
+        long windowFrames = 0;
+        long tick = -1;
+        while (running) {
+            FrameSnapshot snapshot = slot.getAndSet(null);
+            if (snapshot != null) {
+                apply(snapshot);
+                tick = snapshot.tick();
+            }
+            if (tiles != null) {
+                renderer.setStatus(String.format("%.0f TPS  %.0f FPS", ticksPerSecond, framesPerSecond));
+                renderer.renderFrame(tiles, focus);
+                renderedTick = tick;
+                frames++;
+                windowFrames++;
+            }
+
+            long now = System.nanoTime();
+            if (now - windowStart >= REPORT_NANOS) {
+                framesPerSecond = windowFrames / ((now - windowStart) / 1e9);
+                windowStart = now;
+                windowFrames = 0;
+            }
+            nextFrame = Math.max(nextFrame + frameNanos, now);
+            long wait = nextFrame - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+
+    /**
+     * Brings the render thread's copy of the game up to date with a snapshot.
+     */
+    private void apply(FrameSnapshot snapshot) {
+        if (snapshot.renderer() != renderer) {
+            renderer = snapshot.renderer();
+            renderer.initialize(snapshot.tiles().length, snapshot.tiles()[0].length);
+            renderer.setStaticLayer(true);
+        }
+        if (snapshot.isFull()) {
+            tiles = snapshot.tiles();
+        } else if (tiles == null) {
+            return; // Changes can only be drawn over a full snapshot
+        }
+        for (FrameSnapshot.Cell cell : snapshot.cells()) {
+            tiles[cell.x()][cell.y()] = cell.tile();
+            renderer.markDirty(cell.x(), cell.y());
+        }
+        renderer.setOverlay(snapshot.overlay());
+        focus = snapshot.focus();
+        ticksPerSecond = snapshot.ticksPerSecond();
+    }
+}
@@ -0,0 +1,141 @@
+package core;
+
+import tileengine.TileGrid;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answers the two questions World asks for every candidate room in constant time: does it overlap
+ * the buffer around an already placed room, and does it cover any unused tile.
+ * <p>
+ * Placed rooms (grown by their buffer) are bucketed into a uniform grid of square cells, so a query only
+ * looks at the handful of rooms near the candidate. Unused tiles never change while rooms are being
+ * placed, so they are counted once into a summed-area table. Indexes over separate regions of one grid
+ * share that table.
+ */
+public class RoomIndex {
+    private final int cellSize;
+    private final int originX;
+    private final int originY;
+    private final int cellsX;
+    private final int cellsY;
+    private final List<List<Rectangle>> cells;
+    private final int[] unusedSums;
+    private final int sumsHeight;
+
+    /**
+     * Builds an index for the given grid. The grid's unused tiles must already be in place.
+     *
+     * @param grid the grid rooms are placed into
+     * @param cellSize the side length of a bucket, ideally about the size of a buffered room
+     */
+    public RoomIndex(TileGrid grid, int cellSize) {
+        this.cellSize = cellSize;
+        this.originX = 0;
+        this.originY = 0;
+        this.cellsX = Math.ceilDiv(grid.getWidth(), cellSize);
+        this.cellsY = Math.ceilDiv(grid.getHeight(), cellSize);
+        this.cells = emptyCells(cellsX * cellsY);
+
+        // unusedSums[x * (h + 1) + y] holds the number of unused tiles in [0, x) x [0, y)
+        this.sumsHeight = grid.getHeight() + 1;
+        this.unusedSums = new int[(grid.getWidth() + 1) * sumsHeight];
+        for (int x = 1; x <= grid.getWidth(); x++) {
+            for (int y = 1; y <= grid.getHeight(); y++) {
+                unusedSums[x * sumsHeight + y] = (grid.isUnused(x - 1, y - 1) ? 1 : 0)
+                        + unusedSums[(x - 1) * sumsHeight + y]
+                        + unusedSums[x * sumsHeight + y - 1]
+                        - unusedSums[(x - 1) * sumsHeight + y - 1];
+            }
+        }
+    }
+
+    /**
+     * Builds an empty index for the rooms of one region, sharing the unused-tile counts of an index for the
+     * whole grid. Rooms added to it must lie inside the region.
+     *
+     * @param whole the index for the whole grid
+     * @param region the region rooms are placed into
+     */
+    public RoomIndex(RoomIndex whole, Rectangle region) {
+        this.cellSize = whole.cellSize;
+        this.originX = region.x;
+        this.originY = region.y;
+        this.cellsX = Math.max(1, Math.ceilDiv(region.width, cellSize));
+        this.cellsY = Math.max(1, Math.ceilDiv(region.height, cellSize));
+        this.cells = emptyCells(cellsX * cellsY);
+        this.unusedSums = whole.unusedSums;
+        this.sumsHeight = whole.sumsHeight;
+    }
+
+    private static List<List<Rectangle>> emptyCells(int count) {
+        List<List<Rectangle>> cells = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cells.add(null);
+        }
+        return cells;
+    }
+
+    /**
+     * Records the area reserved by a placed room.
+     *
+     * @param reserved the room grown by its buffer
+     */
+    public void add(Rectangle reserved) {
+        int minCellX = Math.max(0, Math.floorDiv(reserved.x - originX, cellSize));
+        int minCellY = Math.max(0, Math.floorDiv(reserved.y - originY, cellSize));
+        int maxCellX = Math.min(cellsX - 1, Math.floorDiv(reserved.x + reserved.width - 1 - originX, cellSize));
+        int maxCellY = Math.min(cellsY - 1, Math.floorDiv(reserved.y + reserved.height - 1 - originY, cellSize));
+
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                int i = cx * cellsY + cy;
+                if (cells.get(i) == null) {
+                    cells.set(i, new ArrayList<>(2));
+                }
+                cells.get(i).add(reserved);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a room intersects the reserved area of any added room, using the same
+     * (exclusive) edges as Rectangle.intersects.
+     *
+     * @param room the candidate room
+     * @return true if the room intersects a reserved area
+     */
+    public boolean intersectsReserved(Rectangle room) {
+        int minCellX = Math.max(0, Math.floorDiv(room.x - originX, cellSize));
+        int minCellY = Math.max(0, Math.floorDiv(room.y - originY, cellSize));
+        int maxCellX = Math.min(cellsX - 1, Math.floorDiv(room.x + room.width - 1 - originX, cellSize));
+        int maxCellY = Math.min(cellsY - 1, Math.floorDiv(room.y + room.height - 1 - originY, cellSize));
+
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                List<Rectangle> cell = cells.get(cx * cellsY + cy);
+                if (cell == null) {
+                    continue;
+                }
+                for (Rectangle reserved : cell) {
+                    if (room.x < reserved.x + reserved.width && reserved.x < room.x + room.width
+                            && room.y < reserved.y + reserved.height && reserved.y < room.y + room.height) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts the unused tiles in the inclusive range [minX, maxX] x [minY, maxY].
+     */
+    public int countUnused(int minX, int minY, int maxX, int maxY) {
+        int x0 = minX * sumsHeight;
+        int x1 = (maxX + 1) * sumsHeight;
+        return unusedSums[x1 + maxY + 1] - unusedSums[x0 + maxY + 1] - unusedSums[x1 + minY] + unusedSums[x0 + minY];
+    }
+}
@@ -0,0 +1,204 @@
+package core;
+
+import tileengine.IslandTileSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Searches for seeds whose worlds match a set of constraints, generating candidate worlds on several threads.
+ * Threads take seeds in increasing order and stop taking new ones as soon as enough matches are found, so a
+ * search returns the first matching seeds no matter how many threads ran it.
+ * <p>
+ * Usage: {@code java core.SeedSearch [--params PARAMS] [--from SEED] [--max-seeds N] [--matches K]
+ * [--threads N] --where CONSTRAINT...}, where PARAMS are the GameState creation parameters without the seed
+ * and each CONSTRAINT compares a statistic with a value, e.g. "rooms>=40", "shape=circular" or
+ * "straightHallwayRatio>0.6". The statistics are those of WorldStats: rooms, walkableTiles, hallwayTiles,
+ * straightHallwayRatio, continuePercentage, shape and spread.
+ */
+public class SeedSearch {
+    private static final Pattern CONSTRAINT = Pattern.compile("(\\w+)\\s*(>=|<=|!=|=|>|<)\\s*(\\S+)");
+    private static final String DEFAULT_PARAMS = "75,150,null,null,-1,-1,null,-1";
+    private static final String USAGE = "Usage: SeedSearch [--params height,width,spread,shape,minRoomDim,maxRoomDim,"
+            + "continuation,continuePercentage] [--from SEED] [--max-seeds N] [--matches K] [--threads N] "
+            + "--where CONSTRAINT...";
+
+    private final WorldParams params;
+    private final int threads;
+
+    /**
+     * The outcome of a search.
+     *
+     * @param matches the statistics of the matching worlds, in seed order
+     * @param seedsSearched the number of worlds generated
+     * @param nanos the wall-clock time the search took
+     */
+    public record Result(List<WorldStats> matches, long seedsSearched, long nanos) {
+
+        public double getSeedsPerSecond() {
+            return seedsSearched / (nanos / 1e9);
+        }
+    }
+
+    /**
+     * Constructs a SeedSearch.
+     *
+     * @param params the creation parameters shared by every candidate world; the seed is replaced per world
+     * @param threads the number of worlds to generate at once
+     */
+    public SeedSearch(WorldParams params, int threads) {
+        this.params = params;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) {
+        String paramString = DEFAULT_PARAMS;
+        long from = 0;
+        long maxSeeds = Long.MAX_VALUE;
+        int wanted = 10;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Predicate<WorldStats> constraint = stats -> true;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--params" -> paramString = args[++i];
+                    case "--from" -> from = Long.parseLong(args[++i]);
+                    case "--max-seeds" -> maxSeeds = Long.parseLong(args[++i]);
+                    case "--matches" -> wanted = Integer.parseInt(args[++i]);
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--where" -> constraint = constraint.and(parseConstraint(args[++i]));
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        SeedSearch search = new SeedSearch(WorldParams.fromString("0," + paramString), threads);
+        Result result = search.search(from, maxSeeds, wanted, constraint);
+        System.out.println("seed,rooms,walkableTiles,hallwayTiles,straightHallwayRatio,shape,spread,continuePercentage");
+        for (WorldStats stats : result.matches()) {
+            System.out.printf("%d,%d,%d,%d,%.3f,%s,%s,%d%n", stats.seed(), stats.rooms(), stats.walkableTiles(),
+                    stats.hallwayTiles(), stats.straightHallwayRatio(), stats.shape(), stats.spread(), stats.continuePercentage());
+        }
+        System.out.printf("Searched %d seeds in %.2f s on %d threads (%.1f seeds/sec), found %d matches%n",
+                result.seedsSearched(), result.nanos() / 1e9, threads, result.getSeedsPerSecond(), result.matches().size());
+    }
+
+    /**
+     * Searches the seeds from firstSeed on for worlds matching a constraint.
+     *
+     * @param firstSeed the first seed to try
+     * @param maxSeeds the most seeds to try before giving up
+     * @param wanted the number of matches to stop after
+     * @param constraint the constraint a world's statistics must meet
+     * @return the first matching seeds, at most wanted of them, and the search's throughput
+     */
+    public Result search(long firstSeed, long maxSeeds, int wanted, Predicate<WorldStats> constraint) {
+        AtomicLong nextOffset = new AtomicLong();
+        AtomicLong searched = new AtomicLong();
+        AtomicInteger found = new AtomicInteger();
+        List<WorldStats> matches = Collections.synchronizedList(new ArrayList<>());
+        long start = System.nanoTime();
+
+        // Every seed below the last one taken is generated, so the first matches found are the first overall
+        Callable<Void> worker = () -> {
+            while (found.get() < wanted && !Thread.currentThread().isInterrupted()) {
+                long offset = nextOffset.getAndIncrement();
+                if (offset >= maxSeeds) {
+                    break;
+                }
+                long seed = firstSeed + offset;
+                WorldStats stats = WorldStats.of(seed, params.withSeed(seed).createWorld(new IslandTileSet()));
+                searched.incrementAndGet();
+                if (constraint.test(stats)) {
+                    matches.add(stats);
+                    found.incrementAndGet();
+                }
+            }
+            return null;
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (Future<Void> future : pool.invokeAll(Collections.nCopies(threads, worker))) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<WorldStats> first = matches.stream()
+                .sorted(Comparator.comparingLong(WorldStats::seed))
+                .limit(wanted)
+                .toList();
+        return new Result(first, searched.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * Parses a constraint such as "rooms>=40" or "shape=circular". Text statistics only support = and !=.
+     *
+     * @param constraint the constraint
+     * @return a predicate over world statistics
+     */
+    public static Predicate<WorldStats> parseConstraint(String constraint) {
+        Matcher matcher = CONSTRAINT.matcher(constraint.trim());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Bad constraint " + constraint);
+        }
+        String stat = matcher.group(1);
+        String op = matcher.group(2);
+        String value = matcher.group(3);
+
+        Function<WorldStats, String> text = switch (stat) {
+            case "shape" -> WorldStats::shape;
+            case "spread" -> WorldStats::spread;
+            default -> null;
+        };
+        if (text != null) {
+            return switch (op) {
+                case "=" -> stats -> value.equals(text.apply(stats));
+                case "!=" -> stats -> !value.equals(text.apply(stats));
+                default -> throw new IllegalArgumentException("Bad comparison for " + stat + ": " + op);
+            };
+        }
+
+        Function<WorldStats, Double> number = switch (stat) {
+            case "rooms" -> stats -> (double) stats.rooms();
+            case "walkableTiles" -> stats -> (double) stats.walkableTiles();
+            case "hallwayTiles" -> stats -> (double) stats.hallwayTiles();
+            case "straightHallwayRatio" -> WorldStats::straightHallwayRatio;
+            case "continuePercentage" -> stats -> (double) stats.continuePercentage();
+            default -> throw new IllegalArgumentException("Unknown statistic " + stat);
+        };
+        double limit = Double.parseDouble(value);
+        return switch (op) {
+            case ">=" -> stats -> number.apply(stats) >= limit;
+            case "<=" -> stats -> number.apply(stats) <= limit;
+            case ">" -> stats -> number.apply(stats) > limit;
+            case "<" -> stats -> number.apply(stats) < limit;
+            case "=" -> stats -> number.apply(stats) == limit;
+            default -> stats -> number.apply(stats) != limit;
+        };
+    }
+}
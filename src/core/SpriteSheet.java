@@ -1,22 +1,20 @@
 package core;
 
-import javax.imageio.ImageIO;
+import tileengine.TileImages;
+
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-import java.util.Stack;
 
 /**
  * The SpriteSheet class manages game graphics and is primarily responsible for taking tilesets
- * and extracting individual tiles/animations. Created to serve as a helper class for using Princeton's STDraw
- * library, which only supports drawing tiles from filepaths (and not from BufferedImage objects).
+ * and extracting individual tiles/animations. Each tile is cut out of the sheet once, so the same
+ * coordinates always give the same image, which AnimatedTETile keys its composited sprites by. The sheet
+ * itself is decoded once per path by TileImages.
  */
 public class SpriteSheet {
-    private static final Stack<File> deletionQueue = new Stack<>();
-    private final File dir;
     private final int TILE_WIDTH;
     private final int TILE_HEIGHT;
     private BufferedImage sprites;
+    private BufferedImage[][] tiles;
     private boolean validSpriteSheet;
 
     /**
@@ -30,28 +28,16 @@ public class SpriteSheet {
         this.TILE_HEIGHT = tileHeight;
         this.TILE_WIDTH = tileWidth;
 
-        try {
-            this.sprites = ImageIO.read(new File(filepath));
-            this.validSpriteSheet = true;
-        } catch (IOException e) {
-            this.validSpriteSheet = false;
-        }
-        this.dir = new File("assets", "temps");
-        this.dir.mkdirs();
-        this.dir.deleteOnExit();
-    }
-
-    /**
-     * Clears the deletion queue by deleting all files in the queue.
-     */
-    public static void clear() {
-        while (!deletionQueue.isEmpty()) {
-            deletionQueue.pop().delete();
+        this.sprites = TileImages.get(filepath);
+        this.validSpriteSheet = sprites != null;
+        if (validSpriteSheet) {
+            this.tiles = new BufferedImage[sprites.getWidth() / tileWidth][sprites.getHeight() / tileHeight];
         }
     }
 
     /**
-     * Returns a subimage from the sprite sheet at the specified tile coordinates.
+     * Returns a subimage from the sprite sheet at the specified tile coordinates. Repeated calls with the
+     * same coordinates return the same image.
      *
      * @param nx the x-coordinate of the tile
      * @param ny the y-coordinate of the tile
@@ -61,29 +47,10 @@ public class SpriteSheet {
         if (!this.validSpriteSheet) {
             return null;
         }
-        return sprites.getSubimage(nx * TILE_WIDTH, ny * TILE_HEIGHT, TILE_WIDTH, TILE_HEIGHT);
-    }
-
-    /**
-     * Converts a sprite (subimage) to a file path by saving it as a PNG file.
-     *
-     * @param sprite the BufferedImage representing the sprite
-     * @return the file path of the saved sprite, or null if the sprite sheet is invalid
-     * @source ChatGPT helped with this method
-     */
-    public String convertSpriteToFilePath(BufferedImage sprite) {
-        if (!this.validSpriteSheet) {
-            return null;
-        }
-
-        File spr = new File(this.dir, String.valueOf(sprite.hashCode()));
-        try {
-            ImageIO.write(sprite, "png", spr);
-        } catch (IOException e) {
-            e.printStackTrace();
+        if (tiles[nx][ny] == null) {
+            tiles[nx][ny] = sprites.getSubimage(nx * TILE_WIDTH, ny * TILE_HEIGHT, TILE_WIDTH, TILE_HEIGHT);
         }
-        deletionQueue.add(spr);
-        return spr.getAbsolutePath();
+        return tiles[nx][ny];
     }
 
     /**
@@ -94,4 +61,4 @@ public class SpriteSheet {
     public boolean isValidSpriteSheet() {
         return this.validSpriteSheet;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package core;
+
+import tileengine.RenderTarget;
+import tileengine.TETile;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * A tile drawn from one fixed image, such as one frame of an animation, and otherwise like the tile it copies.
+ * It never changes, so it can be drawn on any thread.
+ */
+public class StillTile extends TETile {
+    private final BufferedImage image;
+
+    /**
+     * Constructs a still of a tile.
+     *
+     * @param tile the tile whose character, colors and description to copy
+     * @param image the image to draw, or null to draw the character
+     */
+    public StillTile(TETile tile, BufferedImage image) {
+        super(tile);
+        this.image = image;
+    }
+
+    @Override
+    public BufferedImage getSprite() {
+        return image;
+    }
+
+    @Override
+    public void draw(RenderTarget target, double x, double y) {
+        if (image != null) {
+            try {
+                target.picture(x + 0.5, y + 0.5, image);
+                return;
+            } catch (IllegalArgumentException e) {
+                // The target can't draw images from memory, so fall back to the character below.
+            }
+        }
+        super.draw(target, x, y);
+    }
+}
@@ -2,48 +2,98 @@ package core;
 
 import tileengine.IslandTileSet;
 import tileengine.TETile;
+import tileengine.TileGrid;
 
 import java.awt.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.List;
 import java.util.Queue;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 /**
  * Represents a World with rooms and tiles.
  */
 
-public class World extends Rectangle {
+public class World extends Rectangle implements PlayableWorld {
     private static final int MAX_TRIES = 1000;
     private static final int MAX_ROOMS = 50;
+    private static final int MAX_ROOMS_AREA = 75 * 150; // World area MAX_ROOMS was tuned for
     private static final int BOUNDARY_BUFFER = 4;
+    private static final int REGION_SIZE = 150; // Side length rooms are placed in separate regions of, roughly
+    private static final int PARALLEL_MIN_TILES = 1 << 18; // Smaller grids finish before stripes could be handed out
+    private static volatile boolean parallelPasses = !Boolean.getBoolean("island.sequentialPasses");
     private final IslandTileSet islandTileSet;
 
 
     private final Rectangle innerBounds;
+    public static final int NO_ROOM = -1;
     private final ArrayList<Rectangle> roomList = new ArrayList<>();
-    private final Random rand;
+    private final ArrayList<Rectangle> roomsById = new ArrayList<>(); // Every placed room, even after cleaning
+    private final RandomStreams streams;
+    private final Random spawnRand; // Kept as a Random so that cached worlds can save its state
     private final String spread;
     private final String mapShape;
     private final int minRoomDim;
-    private int numRooms = 0;
+    private final int maxRooms;
+    private final int maxTries;
     private int maxRoomDim;
     private int continuePercentage;
-    private TETile[][] tiles;
+    private TileGrid grid;
+    private int[] roomIds; // Room id + 1 of the room covering each tile (walls included), 0 for none
+    private final GenerationReport generationReport;
+    private final LongAdder workerAllocatedBytes = new LongAdder(); // Allocated by parallel passes off the generating thread
+    private TETile[][] tiles; // View of the grid, built on demand by getTiles()
 
 
     public World(long seed, int rows, int columns, String spread, String shape, int minRoomDim, int maxRoomDim, String continuation, int continuePercentage, IslandTileSet tileset) {
+        this(seed, rows, columns, spread, shape, minRoomDim, maxRoomDim, continuation, continuePercentage, -1, tileset);
+    }
+
+    /**
+     * Creates a world with an explicit room limit.
+     *
+     * @param maxRooms the most rooms to place, or -1 to scale MAX_ROOMS with the world's area
+     */
+    public World(long seed, int rows, int columns, String spread, String shape, int minRoomDim, int maxRoomDim, String continuation, int continuePercentage, int maxRooms, IslandTileSet tileset) {
+        this(seed, rows, columns, spread, shape, minRoomDim, maxRoomDim, continuation, continuePercentage, maxRooms, tileset, GenerationPipeline.standard());
+    }
+
+    /**
+     * Creates a world generated by a custom pipeline, e.g. one with stages skipped or replaced.
+     *
+     * @param maxRooms the most rooms to place, or -1 to scale MAX_ROOMS with the world's area
+     * @param pipeline the stages to generate the world with
+     */
+    public World(long seed, int rows, int columns, String spread, String shape, int minRoomDim, int maxRoomDim, String continuation, int continuePercentage, int maxRooms, IslandTileSet tileset, GenerationPipeline pipeline) {
         super(new Dimension(columns, rows));
-        this.rand = new Random(seed);
+        this.streams = new RandomStreams(seed);
+        this.spawnRand = new Random(streams.seedFor(RandomStreams.Purpose.SPAWN, 0));
         this.islandTileSet = tileset;
+        SplittableRandom settings = streams.stream(RandomStreams.Purpose.SETTINGS, 0);
 
-        this.spread = (spread != null) ? spread : (rand.nextBoolean() ? "packed" : "scattered");
-        this.mapShape = (shape != null) ? shape : (rand.nextBoolean() ? "rectangular" : (rand.nextBoolean() ? "circular" : "cube"));
+        this.spread = (spread != null) ? spread : (settings.nextBoolean() ? "packed" : "scattered");
+        this.mapShape = (shape != null) ? shape : (settings.nextBoolean() ? "rectangular" : (settings.nextBoolean() ? "circular" : "cube"));
 
         this.innerBounds = this.getBounds();
         innerBounds.grow(-BOUNDARY_BUFFER, -BOUNDARY_BUFFER);
 
-        this.minRoomDim = (minRoomDim != -1) ? minRoomDim : rand.nextInt(5, 8);
-        this.maxRoomDim = (maxRoomDim != -1) ? maxRoomDim : this.minRoomDim + rand.nextInt(4, 8);
+        this.minRoomDim = (minRoomDim != -1) ? minRoomDim : settings.nextInt(5, 8);
+        this.maxRoomDim = (maxRoomDim != -1) ? maxRoomDim : this.minRoomDim + settings.nextInt(4, 8);
+
+        // Never fewer than MAX_ROOMS, so worlds up to the default size keep their layouts
+        this.maxRooms = (maxRooms != -1) ? maxRooms
+                : (int) Math.max(MAX_ROOMS, (long) MAX_ROOMS * rows * columns / MAX_ROOMS_AREA);
+        this.maxTries = (int) Math.max(MAX_TRIES, (long) MAX_TRIES * this.maxRooms / MAX_ROOMS);
 
         if (continuation != null) {
             switch (continuation) {
@@ -53,36 +103,134 @@ public class World extends Rectangle {
                 case "custom" -> this.continuePercentage = continuePercentage;
             }
         } else {
-            this.continuePercentage = rand.nextInt(50, 90);
+            this.continuePercentage = settings.nextInt(50, 90);
+        }
+
+        this.generationReport = pipeline.run(this);
+    }
+
+    /**
+     * Restores a world written by write() without regenerating it. The restored world continues with the
+     * same spawn random state, so it hands out the same spawn positions as the world that was written.
+     *
+     * @param in where to read the world from
+     * @param tileset the tile set the world draws its tiles from
+     */
+    World(DataInput in, IslandTileSet tileset) throws IOException {
+        super(new Dimension(in.readInt(), in.readInt()));
+        this.islandTileSet = tileset;
+        this.innerBounds = this.getBounds();
+        innerBounds.grow(-BOUNDARY_BUFFER, -BOUNDARY_BUFFER);
+
+        this.spread = in.readUTF();
+        this.mapShape = in.readUTF();
+        this.minRoomDim = in.readInt();
+        this.maxRoomDim = in.readInt();
+        this.maxRooms = in.readInt();
+        this.maxTries = in.readInt();
+        this.continuePercentage = in.readInt();
+        this.streams = new RandomStreams(in.readLong());
+
+        this.grid = TileGrid.readFrom(in);
+        this.roomIds = new int[this.width * this.height];
+        int placedRooms = in.readInt();
+        for (int id = 0; id < placedRooms; id++) {
+            Rectangle room = new Rectangle(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+            roomsById.add(room);
+            if (in.readBoolean()) {
+                roomList.add(room);
+                for (int i = room.x; i <= room.x + room.width; i++) {
+                    for (int j = room.y; j <= room.y + room.height; j++) {
+                        roomIds[grid.index(i, j)] = id + 1;
+                    }
+                }
+            }
+        }
+
+        byte[] randomState = new byte[in.readInt()];
+        in.readFully(randomState);
+        try (ObjectInputStream randomIn = new ObjectInputStream(new ByteArrayInputStream(randomState))) {
+            randomIn.setObjectInputFilter(ObjectInputFilter.Config.createFilter("java.util.Random;!*"));
+            this.spawnRand = (Random) randomIn.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Bad random state", e);
+        }
+        this.generationReport = new GenerationReport(List.of());
+    }
+
+    /**
+     * Writes everything needed to restore this world after generation: its settings, seed, tiles, rooms
+     * and spawn random state.
+     *
+     * @param out where to write the world
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeInt(this.width);
+        out.writeInt(this.height);
+        out.writeUTF(spread);
+        out.writeUTF(mapShape);
+        out.writeInt(minRoomDim);
+        out.writeInt(maxRoomDim);
+        out.writeInt(maxRooms);
+        out.writeInt(maxTries);
+        out.writeInt(continuePercentage);
+        out.writeLong(streams.getSeed());
+
+        grid.writeTo(out);
+        out.writeInt(roomsById.size());
+        for (int id = 0; id < roomsById.size(); id++) {
+            Rectangle room = roomsById.get(id);
+            out.writeInt(room.x);
+            out.writeInt(room.y);
+            out.writeInt(room.width);
+            out.writeInt(room.height);
+            out.writeBoolean(roomAt(room.x, room.y) == id); // Cleaned rooms are no longer in the raster
+        }
+
+        ByteArrayOutputStream randomState = new ByteArrayOutputStream();
+        try (ObjectOutputStream randomOut = new ObjectOutputStream(randomState)) {
+            randomOut.writeObject(spawnRand);
         }
+        out.writeInt(randomState.size());
+        out.write(randomState.toByteArray());
+    }
 
-        initializeTiles();
-        setUpRooms();
-        placeDoors();
-        createPathways();
-        removeDeadEnds();
-        fixDoors();
-        wallOffPaths();
-        setAppropriateFloorTiles();
-        roomCleaner();
-        wallOffPaths();
+    /**
+     * Returns the stages of standard world generation, in order.
+     *
+     * @return the standard stages
+     */
+    static List<GenerationStage> standardStages() {
+        return List.of(
+                GenerationStage.of("initializeTiles", World::initializeTiles),
+                GenerationStage.of("setUpRooms", World::setUpRooms),
+                GenerationStage.of("placeDoors", World::placeDoors),
+                GenerationStage.of("createPathways", World::createPathways),
+                GenerationStage.of("removeDeadEnds", World::removeDeadEnds),
+                GenerationStage.of("fixDoors", World::fixDoors),
+                GenerationStage.of("wallOffPaths", World::wallOffPaths),
+                GenerationStage.of("setAppropriateFloorTiles", World::setAppropriateFloorTiles),
+                GenerationStage.of("roomCleaner", World::roomCleaner),
+                GenerationStage.of("wallOffCleanedRooms", World::wallOffPaths)
+        );
     }
 
     /**
-     * Initializes the tiles array and applies a mask based on the map shape.
+     * Initializes the tile grid and applies a mask based on the map shape.
      * <p>
      * This method performs the following steps:
-     * 1. Initializes the `tiles` array with dimensions `width` x `height`.
-     * 2. Fills each row of the `tiles` array with the "nothing" tile from the `islandTileSet`.
-     * 3. Applies a mask to the `tiles` array based on the `mapShape` value.
+     * 1. Initializes the `grid` with dimensions `width` x `height`.
+     * 2. Fills each column of the `grid` with a "nothing" tile variant.
+     * 3. Applies a mask to the `grid` based on the `mapShape` value.
      */
     private void initializeTiles() {
-        // Initialize the tiles array with the specified width and height
-        this.tiles = new TETile[this.width][this.height];
+        // Initialize the grid with the specified width and height
+        this.grid = new TileGrid(this.width, this.height);
+        this.roomIds = new int[this.width * this.height];
 
-        // Fill each row of the tiles array with the "nothing" tile
+        // Fill each column of the grid with the "nothing" tile
         for (int i = 0; i < this.width; i++) {
-            Arrays.fill(this.tiles[i], islandTileSet.getNothing(rand));
+            grid.fillColumn(i, TileGrid.NOTHING, streams.pick(RandomStreams.Purpose.COLUMN_VARIANTS, i, 1, IslandTileSet.NUM_IMAGE_VARIANTS + 1));
         }
 
         // Apply a mask to the tiles array based on the map shape
@@ -103,7 +251,7 @@ public class World extends Rectangle {
         for (int i = 0; i < this.width; i++) {
             for (int j = 0; j < this.height; j++) {
                 if (!innerBounds.contains(i, j)) {
-                    this.tiles[i][j] = islandTileSet.getUnused();
+                    grid.set(i, j, TileGrid.UNUSED, 0);
                 }
             }
         }
@@ -121,7 +269,7 @@ public class World extends Rectangle {
         for (int i = 0; i < this.width; i++) {
             for (int j = 0; j < this.height; j++) {
                 if (Point.distance(i, j, getCenterX(), getCenterY()) >= radius) {
-                    this.tiles[i][j] = islandTileSet.getUnused();
+                    grid.set(i, j, TileGrid.UNUSED, 0);
                 }
             }
         }
@@ -140,7 +288,7 @@ public class World extends Rectangle {
         for (int i = 0; i < this.width; i++) {
             for (int j = 0; j < this.height; j++) {
                 if (!cubicBounds.contains(i, j)) {
-                    this.tiles[i][j] = islandTileSet.getUnused();
+                    grid.set(i, j, TileGrid.UNUSED, 0);
                 }
             }
         }
@@ -149,102 +297,195 @@ public class World extends Rectangle {
     /**
      * Sets up the rooms in the world based on the spread type.
      * <p>
-     * This method determines the room arrangement strategy based on the spread value.
-     * It either scatters the rooms or packs them closely together.
+     * The world is split into regions of about REGION_SIZE tiles on a side, and each region scatters or packs
+     * its share of the rooms with its own random stream. A room keeps its whole buffer inside its region, so
+     * regions never affect each other and large worlds fill them concurrently. Rooms get their ids
+     * afterwards, region by region, so the result does not depend on which region finished first.
      */
     private void setUpRooms() {
-        switch (this.spread) {
-            case "scattered" -> scatterRooms();
-            case "packed" -> packRooms();
+        RoomIndex wholeIndex = new RoomIndex(grid, maxRoomDim + 2 * BOUNDARY_BUFFER);
+        int regionsX = Math.max(1, Math.round(width / (float) REGION_SIZE));
+        int regionsY = Math.max(1, Math.round(height / (float) REGION_SIZE));
+        int count = regionsX * regionsY;
+
+        RoomRegion[] regions = new RoomRegion[count];
+        for (int r = 0; r < count; r++) {
+            int i = r / regionsY;
+            int j = r % regionsY;
+            Rectangle bounds = new Rectangle(i * width / regionsX, j * height / regionsY, 0, 0);
+            bounds.add((i + 1) * width / regionsX, (j + 1) * height / regionsY);
+            regions[r] = new RoomRegion(r, bounds, new RoomIndex(wholeIndex, bounds), share(maxRooms, r, count), share(maxTries, r, count));
         }
+        forEachIndex(0, count, r -> regions[r].fill());
+
+        for (RoomRegion region : regions) {
+            for (Rectangle room : region.rooms) {
+                int id = roomsById.size();
+                for (int i = room.x; i <= room.x + room.width; i++) {
+                    for (int j = room.y; j <= room.y + room.height; j++) {
+                        roomIds[grid.index(i, j)] = id + 1;
+                    }
+                }
+                roomList.add(room);
+                roomsById.add(room);
+            }
+        }
+        this.maxRoomDim = regions[0].maxRoomDim;
     }
 
     /**
-     * Packs rooms into the world.
-     * <p>
-     * This method attempts to place new rooms into the world until the maximum number of rooms (MAXROOMS)
-     * or the maximum number of tries (MAXTRIES) is reached. If the maximum room dimension (maxRoomDim)
-     * is greater than the minimum room dimension (minRoomDim) plus one, it reduces the maxRoomDim by one
-     * and recursively calls itself to pack more rooms.
+     * Splits a total evenly between parts, giving the remainder to the later parts.
      */
-    private void packRooms() {
-        for (int count = 0; numRooms < MAX_ROOMS && count < MAX_TRIES; count++) {
-            if (!placeNewRoom()) {
-                count++;
-            }
-        }
-
-        if (maxRoomDim > minRoomDim + 1) {
-            maxRoomDim -= 1;
-            packRooms();
-        }
+    private static int share(int total, int part, int parts) {
+        return (int) ((long) total * (part + 1) / parts - (long) total * part / parts);
     }
 
     /**
-     * Scatters rooms into the world.
-     * <p>
-     * This method attempts to place new rooms into the world until the maximum number of rooms (MAXROOMS)
-     * or the maximum number of tries (MAXTRIES) is reached. If a room cannot be placed, the count is incremented.
+     * One region of the world that rooms are placed into, with its own random stream, room index and share
+     * of the room and try limits. It only writes the grid inside its bounds.
      */
-    private void scatterRooms() {
-        for (int count = 0; numRooms < MAX_ROOMS && count < MAX_TRIES; count++) {
-            if (!placeNewRoom()) {
-                count++;
+    private class RoomRegion {
+        private final Rectangle bounds;
+        private final SplittableRandom rand;
+        private final RoomIndex roomIndex;
+        private final int maxRooms;
+        private final int maxTries;
+        private final List<Rectangle> rooms = new ArrayList<>();
+        private int maxRoomDim = World.this.maxRoomDim;
+
+        RoomRegion(int index, Rectangle bounds, RoomIndex roomIndex, int maxRooms, int maxTries) {
+            this.bounds = bounds;
+            this.rand = streams.stream(RandomStreams.Purpose.ROOMS, index);
+            this.roomIndex = roomIndex;
+            this.maxRooms = maxRooms;
+            this.maxTries = maxTries;
+        }
+
+        private void fill() {
+            switch (spread) {
+                case "scattered" -> scatterRooms();
+                case "packed" -> packRooms();
             }
         }
-    }
 
-    /**
-     * Places a new room into the world.
-     * <p>
-     * This method creates a new room and checks if it can be placed in the world. If the room can be placed,
-     * it fills the room with floor tiles and adds it to the room list. The number of rooms is incremented and
-     * the method returns true. If the room cannot be placed, the method returns false.
-     *
-     * @return true if the room was placed, false otherwise
-     */
-    private Boolean placeNewRoom() {
-        Rectangle room = roomBuilder();
+        /**
+         * Packs rooms into the region.
+         * <p>
+         * This method attempts to place new rooms into the region until the maximum number of rooms (maxRooms)
+         * or the maximum number of tries (maxTries) is reached. If the maximum room dimension (maxRoomDim)
+         * is greater than the minimum room dimension (minRoomDim) plus one, it reduces the maxRoomDim by one
+         * and recursively calls itself to pack more rooms.
+         */
+        private void packRooms() {
+            for (int count = 0; rooms.size() < maxRooms && count < maxTries; count++) {
+                if (!placeNewRoom()) {
+                    count++;
+                }
+            }
 
-        if (!canPlace(room)) {
-            return false;
+            if (maxRoomDim > minRoomDim + 1) {
+                maxRoomDim -= 1;
+                packRooms();
+            }
         }
 
-        int minX = (int) room.getMinX();
-        int minY = (int) room.getMinY();
-        int maxX = (int) room.getMaxX();
-        int maxY = (int) room.getMaxY();
+        /**
+         * Scatters rooms into the region.
+         * <p>
+         * This method attempts to place new rooms into the region until the maximum number of rooms (maxRooms)
+         * or the maximum number of tries (maxTries) is reached. If a room cannot be placed, the count is incremented.
+         */
+        private void scatterRooms() {
+            for (int count = 0; rooms.size() < maxRooms && count < maxTries; count++) {
+                if (!placeNewRoom()) {
+                    count++;
+                }
+            }
+        }
+
+        /**
+         * Places a new room into the region.
+         * <p>
+         * This method creates a new room and checks if it can be placed in the region. If the room can be placed,
+         * it fills the room with floor tiles and adds it to the region's rooms, then returns true. If the room
+         * cannot be placed, the method returns false.
+         *
+         * @return true if the room was placed, false otherwise
+         */
+        private Boolean placeNewRoom() {
+            Rectangle room = roomBuilder();
+
+            if (!canPlace(room)) {
+                return false;
+            }
+
+            int minX = (int) room.getMinX();
+            int minY = (int) room.getMinY();
+            int maxX = (int) room.getMaxX();
+            int maxY = (int) room.getMaxY();
 
-        for (int i = minX; i <= maxX; i++) {
-            for (int j = minY; j <= maxY; j++) {
-                this.tiles[i][j] = (i == minX || i == maxX || j == minY || j == maxY) ? islandTileSet.getWall(rand) : islandTileSet.getFloor();
+            for (int i = minX; i <= maxX; i++) {
+                for (int j = minY; j <= maxY; j++) {
+                    if (i == minX || i == maxX || j == minY || j == maxY) {
+                        grid.set(i, j, TileGrid.WALL, randomVariant(i, j));
+                    } else {
+                        grid.set(i, j, TileGrid.FLOOR, IslandTileSet.FLOOR_CENTER);
+                    }
+                }
             }
+            rooms.add(room);
+            Rectangle reserved = room.getBounds();
+            reserved.grow(BOUNDARY_BUFFER, BOUNDARY_BUFFER);
+            roomIndex.add(reserved);
+            return true;
         }
-        roomList.add(room);
-        this.numRooms++;
-        return true;
-    }
 
-    /**
-     * Builds a new room with random dimensions and location within the inner bounds of the world.
-     * <p>
-     * This method creates a new Room, assigns it random dimensions within the specified
-     * minimum and maximum room dimensions, and places it at a random location within the inner bounds
-     * of the world, ensuring that hallways can span from any side of the room while meeting the boundary requirements.
-     *
-     * @return A Room  with random dimensions and location.
-     */
-    private Rectangle roomBuilder() {
-        Rectangle room = new Rectangle();
-        Dimension roomDim = new Dimension();
-        roomDim.height = rand.nextInt(this.minRoomDim, this.maxRoomDim + 1);
-        roomDim.width = rand.nextInt(this.minRoomDim, this.maxRoomDim + 1);
-        room.setSize(roomDim);
+        /**
+         * Builds a new room with random dimensions and location within the region and the inner bounds of the world.
+         * <p>
+         * This method creates a new Room, assigns it random dimensions within the specified
+         * minimum and maximum room dimensions, and places it at a random location within the inner bounds
+         * of the world, ensuring that hallways can span from any side of the room while meeting the boundary requirements.
+         *
+         * @return A Room  with random dimensions and location.
+         */
+        private Rectangle roomBuilder() {
+            Rectangle room = new Rectangle();
+            Dimension roomDim = new Dimension();
+            roomDim.height = rand.nextInt(minRoomDim, this.maxRoomDim + 1);
+            roomDim.width = rand.nextInt(minRoomDim, this.maxRoomDim + 1);
+            room.setSize(roomDim);
+
+            Rectangle innerBounds = World.this.innerBounds.getBounds();
+            innerBounds.grow(-2, -2); // allow hallways to span from any side of the room while meeting the boundary req
+            int maxX = Math.min((int) innerBounds.getMaxX(), (int) bounds.getMaxX());
+            int maxY = Math.min((int) innerBounds.getMaxY(), (int) bounds.getMaxY());
+            room.setLocation(bounds.x + rand.nextInt(maxX - bounds.x - roomDim.width), bounds.y + rand.nextInt(maxY - bounds.y - roomDim.height));
+            return room;
+        }
 
-        Rectangle innerBounds = this.innerBounds.getBounds();
-        innerBounds.grow(-2, -2); // allow hallways to span from any side of the room while meeting the boundary req
-        room.setLocation(rand.nextInt((int) innerBounds.getMaxX() - roomDim.width), rand.nextInt((int) innerBounds.getMaxY() - roomDim.height));
-        return room;
+        /**
+         * Checks if a room can be placed in the region.
+         * <p>
+         * This method verifies if the given room and its buffer fit within the region and the room does not overlap
+         * with existing rooms or unused tiles. Both overlap checks are answered by the room index.
+         *
+         * @param room The room to check for placement.
+         * @return true if the room can be placed, false otherwise.
+         */
+        private Boolean canPlace(Rectangle room) {
+            if (room.x - BOUNDARY_BUFFER < bounds.x || room.y - BOUNDARY_BUFFER < bounds.y
+                    || room.x + room.width + BOUNDARY_BUFFER > bounds.x + bounds.width
+                    || room.y + room.height + BOUNDARY_BUFFER > bounds.y + bounds.height) {
+                return false;
+            }
+
+            if (roomIndex.intersectsReserved(room)) {
+                return false;
+            }
+
+            return roomIndex.countUnused(room.x, room.y, room.x + room.width, room.y + room.height) == 0;
+        }
     }
 
 
@@ -254,29 +495,53 @@ public class World extends Rectangle {
      * This method iterates over each room in the room list and finds potential door positions for each room.
      * It shuffles the list of door positions and randomly places doors in the world. Attempts to place
      * between 1 and 4 doors in each room.
+     * <p>
+     * Each room shuffles with its own stream, and no room's door search looks at tiles another room's doors
+     * change, so large worlds choose doors for all rooms concurrently. The doors are then placed in room
+     * order, since two facing rooms can put their bridges on the same tile.
      */
     private void placeDoors() {
-        for (Rectangle room : roomList) {
-            List<Object[]> doorPositions = findDoorPositions(room);
-            Collections.shuffle(doorPositions, rand);
+        List<List<Object[]>> doors = new ArrayList<>(Collections.nCopies(roomList.size(), null));
+        forEachIndex(0, roomList.size(), id -> doors.set(id, chooseDoors(roomList.get(id), id)));
 
-            int doorsToPlace = rand.nextInt(1, 2);
-            Set<Direction> existingDirections = new HashSet<>();
-
-            for (int i = 0; i < doorsToPlace && !doorPositions.isEmpty(); ) {
-                Object[] doorAndDirection = doorPositions.removeFirst();
+        for (List<Object[]> roomDoors : doors) {
+            for (Object[] doorAndDirection : roomDoors) {
                 Point doorwayPos = (Point) doorAndDirection[0];
                 Direction dir = (Direction) doorAndDirection[1];
+                grid.set(doorwayPos.x, doorwayPos.y, TileGrid.DOOR, 0);
 
-                if (!existingDirections.contains(dir)) {
-                    tiles[doorwayPos.x][doorwayPos.y] = islandTileSet.getTemporaryDoorway(); // TODO: update tile
+                Point nPos = Direction.translate(doorwayPos, dir);
+                grid.set(nPos.x, nPos.y, TileGrid.HALLWAY, IslandTileSet.getBridgeVariant(dir.opposite()));
+            }
+        }
+    }
 
-                    Point nPos = Direction.translate(doorwayPos, dir);
-                    tiles[nPos.x][nPos.y] = islandTileSet.getBridge(dir.opposite());
-                    existingDirections.add(dir);
-                }
+    /**
+     * Chooses the doors of one room, at most one per direction.
+     *
+     * @param room The room to choose doors for.
+     * @param id The room's id, which picks its random stream.
+     * @return the chosen door positions and directions, as returned by findDoorPositions
+     */
+    private List<Object[]> chooseDoors(Rectangle room, int id) {
+        List<Object[]> doorPositions = findDoorPositions(room);
+        SplittableRandom rand = streams.stream(RandomStreams.Purpose.DOORS, id);
+        Collections.shuffle(doorPositions, rand);
+
+        int doorsToPlace = rand.nextInt(1, 2);
+        Set<Direction> existingDirections = new HashSet<>();
+        List<Object[]> doors = new ArrayList<>();
+
+        for (int i = 0; i < doorsToPlace && !doorPositions.isEmpty(); ) {
+            Object[] doorAndDirection = doorPositions.removeFirst();
+            Direction dir = (Direction) doorAndDirection[1];
+
+            if (!existingDirections.contains(dir)) {
+                doors.add(doorAndDirection);
+                existingDirections.add(dir);
             }
         }
+        return doors;
     }
 
 
@@ -302,11 +567,11 @@ public class World extends Rectangle {
         // Check north and south walls. Offset by 2 to avoid placing doors on corners.
         for (int i = minX + 2; i < maxX - 2; i++) {
             boolean added = false;
-            if (tiles[i][minY - 1].isNothing()) {
+            if (grid.isNothing(i, minY - 1)) {
                 doorPositions.add(new Object[]{new Point(i, minY - 1), Direction.UP}); // We have to backtrack to correctly place the bridge
                 added = true;
             }
-            if (tiles[i][maxY + 1].isNothing()) {
+            if (grid.isNothing(i, maxY + 1)) {
                 doorPositions.add(new Object[]{new Point(i, maxY + 1), Direction.DOWN});
                 added = true;
             }
@@ -316,11 +581,11 @@ public class World extends Rectangle {
         // Check east and west walls
         for (int j = minY + 2; j < maxY - 2; j++) {
             boolean added = false;
-            if (tiles[minX - 1][j].isNothing()) {
+            if (grid.isNothing(minX - 1, j)) {
                 doorPositions.add(new Object[]{new Point(minX - 1, j), Direction.RIGHT});
                 added = true;
             }
-            if (tiles[maxX + 1][j].isNothing()) {
+            if (grid.isNothing(maxX + 1, j)) {
                 doorPositions.add(new Object[]{new Point(maxX + 1, j), Direction.LEFT});
                 added = true;
             }
@@ -333,186 +598,110 @@ public class World extends Rectangle {
      * Creates pathways in the world.
      * <p>
      * This method iterates over the tiles array and starts tunneling from positions that are either empty or doors.
-     * It uses a step of 2 to ensure that pathways are created at every other tile.
+     * It uses a step of 2 to ensure that pathways are created at every other tile. The tunneling itself is done
+     * by MazeTunneler.
      */
     private void createPathways() {
-        for (int i = 1; i < this.width - 1; i += 2) {
-            for (int j = 1; j < this.height - 1; j += 2) {
-                if (tiles[i][j].isNothing() || tiles[i][j].isDoor()) {
-                    tunnel(i, j);
-                }
-            }
-        }
+        new MazeTunneler(grid, streams, innerBounds, continuePercentage).carve();
     }
 
     /**
-     * Creates tunnels in the world starting from a given position.
+     * Removes a door and the associated bridge.
      * <p>
-     * This method uses a stack-based depth-first search (DFS) algorithm to create tunnels.
-     * It randomly selects directions to tunnel and ensures that the tunnels do not overlap
-     * with existing structures or go out of bounds.
+     * This method removes a door tile at the specified coordinates and replaces it with a "nothing" tile.
+     * It also updates adjacent hallway tiles to be wall tiles.
      *
-     * @param startX The starting x-coordinate for the tunnel.
-     * @param startY The starting y-coordinate for the tunnel.
+     * @param x The x-coordinate of the door to remove.
+     * @param y The y-coordinate of the door to remove.
      */
-    private void tunnel(int startX, int startY) {
-        Stack<Object[]> nextToVisit = new Stack<>();
-        nextToVisit.push(new Object[]{new Point(startX, startY), null});
-        boolean biasNextVisit = false;
-
-        while (!nextToVisit.isEmpty()) {
-            Point pos = (Point) nextToVisit.peek()[0];
-            Direction lastDir = (Direction) nextToVisit.pop()[1];
-
-            for (Direction dir : Direction.getShuffledDirections(rand)) {
-                if (biasNextVisit && dir.equals(lastDir)) continue;
-
-                Point nPos = Direction.translate(pos, dir, 2);
-
-                if (canTunnel(nPos)) {
-                    tiles[pos.x][pos.y].visit();
-                    makePath(pos, dir, 2);
-                    nextToVisit.add(new Object[]{nPos, dir});
-                }
-            }
-
-            if (biasNextVisit) {
-                Point nPos = Direction.translate(pos, lastDir, 2);
-
-                if (canTunnel(nPos)) {
-                    tiles[pos.x][pos.y].visit();
-                    makePath(pos, lastDir, 2);
-                    nextToVisit.add(new Object[]{nPos, lastDir});
-                }
+    private void removeDoor(int x, int y) {
+        assert grid.isDoor(x, y);
+        grid.set(x, y, TileGrid.NOTHING, randomVariant(x, y));
+        Point pos = new Point(x, y);
+        for (Direction dir : Direction.values()) {
+            Point nPos = Direction.translate(pos, dir);
+            if (grid.isHallway(nPos.x, nPos.y)) {
+                grid.set(nPos.x, nPos.y, TileGrid.WALL, randomVariant(nPos.x, nPos.y));
             }
-
-            biasNextVisit = rand.nextInt(100) < continuePercentage;
-        }
-    }
-
-    /**
-     * Checks if a tunnel can be created at the given position.
-     * <p>
-     * This method ensures that the position is within bounds and that the tile at the position
-     * is either a door that has not been visited or an empty tile that has not been visited.
-     *
-     * @param pos The position to check.
-     * @return true if a tunnel can be created at the position, false otherwise.
-     */
-    private boolean canTunnel(Point pos) {
-        if (!innerBounds.contains(pos)) return false;
-
-        if (tiles[pos.x][pos.y].isDoor() && !tiles[pos.x][pos.y].beenVisited()) {
-            return true;
         }
-
-        return tiles[pos.x][pos.y].isNothing() && !tiles[pos.x][pos.y].beenVisited();
     }
 
     /**
-     * Creates a path of a specified length in a given direction from a starting position.
+     * Removes dead-end hallways from the world.
      * <p>
-     * This method updates the tiles along the path to be temporary hallways, except for door tiles.
-     *
-     * @param pos    The starting position for the path.
-     * @param dir    The direction in which to create the path.
-     * @param length The length of the path to create.
-     */
-    private void makePath(Point pos, Direction dir, int length) {
-        while (length > 0) {
-            pos = Direction.translate(pos, dir);
-            if (!tiles[pos.x][pos.y].isDoor()) {
-                tiles[pos.x][pos.y] = islandTileSet.getTemporaryHallway();
-            }
-            length--;
-        }
-    }
-
-    private void hallFixer() {
-        removeDeadEnds();
-        fixDoors();
-    }
-
-    /**
-     * Checks if a room can be placed in the world.
+     * This method removes dead-end hallways and doors until none are left. Only tiles next to a removal can
+     * become new dead ends, so after seeding the worklist with the initial dead ends, only those neighbours
+     * are rechecked.
      * <p>
-     * This method verifies if the given room can be placed within the world boundaries and does not overlap
-     * with existing rooms or unused tiles.
-     *
-     * @param room The room to check for placement.
-     * @return true if the room can be placed, false otherwise.
+     * Removals happen in the same order as repeated full sweeps of the grid would make them: by sweep, then
+     * by position within the sweep. A tile that becomes a dead end is handled in the current sweep if it
+     * comes after the removal, and in the next one otherwise. This keeps the generated world identical to
+     * the sweeping implementation.
      */
-    private Boolean canPlace(Rectangle room) {
-        Rectangle outBounds = room.getBounds();
-        outBounds.grow(BOUNDARY_BUFFER, BOUNDARY_BUFFER);
-
-        if (!this.contains(outBounds)) {
-            return false;
-        }
+    private void removeDeadEnds() {
+        BitSet currentSweep = new BitSet(width * height);
+        BitSet nextSweep = new BitSet(width * height);
 
-        for (Rectangle o : roomList) {
-            Rectangle outerBounds = o.getBounds();
-            outerBounds.grow(BOUNDARY_BUFFER, BOUNDARY_BUFFER);
-            if (room.intersects(outerBounds)) {
-                return false;
+        for (int i = 1; i < width - 1; i++) {
+            for (int j = 1; j < height - 1; j++) {
+                if ((grid.isHallway(i, j) || grid.isDoor(i, j)) && isDeadEnd(i, j)) {
+                    currentSweep.set(grid.index(i, j));
+                }
             }
         }
 
-        for (int i = (int) room.getMinX(); i <= room.getMaxX(); i++) {
-            for (int j = (int) room.getMinY(); j <= room.getMaxY(); j++) {
-                if (this.tiles[i][j].isUnused()) {
-                    return false;
+        while (!currentSweep.isEmpty()) {
+            for (int index = currentSweep.nextSetBit(0); index >= 0; index = currentSweep.nextSetBit(index + 1)) {
+                int i = index / height;
+                int j = index % height;
+                if (!(grid.isHallway(i, j) || grid.isDoor(i, j)) || !isDeadEnd(i, j)) {
+                    continue;
                 }
+
+                if (grid.isDoor(i, j)) {
+                    // removeDoor walls off the adjacent hallways, so their neighbours need rechecking too
+                    for (Direction dir : Direction.values()) {
+                        int nx = i + Direction.getDx(dir);
+                        int ny = j + Direction.getDy(dir);
+                        if (grid.isHallway(nx, ny)) {
+                            queueNeighbours(nx, ny, index, currentSweep, nextSweep);
+                        }
+                    }
+                    removeDoor(i, j);
+                } else {
+                    grid.set(i, j, TileGrid.NOTHING, randomVariant(i, j));
+                }
+                queueNeighbours(i, j, index, currentSweep, nextSweep);
             }
-        }
 
-        return true;
+            BitSet done = currentSweep;
+            done.clear();
+            currentSweep = nextSweep;
+            nextSweep = done;
+        }
     }
 
     /**
-     * Removes a door and the associated bridge.
-     * <p>
-     * This method removes a door tile at the specified coordinates and replaces it with a "nothing" tile.
-     * It also updates adjacent hallway tiles to be wall tiles.
+     * Queues the hallway and door neighbours of a changed tile to be checked for dead ends.
      *
-     * @param x The x-coordinate of the door to remove.
-     * @param y The y-coordinate of the door to remove.
+     * @param x The x-coordinate of the changed tile.
+     * @param y The y-coordinate of the changed tile.
+     * @param removedIndex The grid index of the removal that caused the change.
+     * @param currentSweep Tiles still to be checked in the current sweep.
+     * @param nextSweep Tiles to be checked in the next sweep.
      */
-    private void removeDoor(int x, int y) {
-        assert tiles[x][y].isDoor();
-        tiles[x][y] = islandTileSet.getNothing(rand);
-        Point pos = new Point(x, y);
+    private void queueNeighbours(int x, int y, int removedIndex, BitSet currentSweep, BitSet nextSweep) {
         for (Direction dir : Direction.values()) {
-            Point nPos = Direction.translate(pos, dir);
-            if (tiles[nPos.x][nPos.y].isHallway()) {
-                tiles[nPos.x][nPos.y] = islandTileSet.getWall(rand);
+            int nx = x + Direction.getDx(dir);
+            int ny = y + Direction.getDy(dir);
+            if (nx < 1 || ny < 1 || nx >= width - 1 || ny >= height - 1) {
+                continue;
             }
-        }
-    }
-
-    /**
-     * Removes dead-end hallways from the world.
-     * <p>
-     * This method iterates over the tiles array and removes dead-end hallways and doors.
-     * It continues to remove dead-ends until no more changes are made.
-     */
-    private void removeDeadEnds() {
-        boolean changed;
-        do {
-            changed = false;
-            for (int i = 1; i < width - 1; i++) {
-                for (int j = 1; j < height - 1; j++) {
-                    if ((tiles[i][j].isHallway() || tiles[i][j].isDoor()) && isDeadEnd(i, j)) {
-                        if (tiles[i][j].isDoor()) {
-                            removeDoor(i, j);
-                        } else {
-                            tiles[i][j] = islandTileSet.getNothing(rand);
-                        }
-                        changed = true;
-                    }
-                }
+            if (grid.isHallway(nx, ny) || grid.isDoor(nx, ny)) {
+                int index = grid.index(nx, ny);
+                (index > removedIndex ? currentSweep : nextSweep).set(index);
             }
-        } while (changed);
+        }
     }
 
     /**
@@ -526,13 +715,10 @@ public class World extends Rectangle {
      */
     private boolean isDeadEnd(int x, int y) {
         int exits = 0;
-        Point currentPos = new Point(x, y);
-        for (Direction dir : Direction.values()) {
-            Point nPos = Direction.translate(currentPos, dir);
-            if (tiles[nPos.x][nPos.y].isHallway() || tiles[nPos.x][nPos.y].isFloor() || tiles[nPos.x][nPos.y].isDoor()) {
-                exits++;
-            }
-        }
+        if (grid.isWalkable(x, y + 1)) exits++;
+        if (grid.isWalkable(x, y - 1)) exits++;
+        if (grid.isWalkable(x - 1, y)) exits++;
+        if (grid.isWalkable(x + 1, y)) exits++;
         return exits <= 1;
     }
 
@@ -547,11 +733,11 @@ public class World extends Rectangle {
             for (Object[] positionObj : findDoorPositions(room)) {
                 Point pos = (Point) positionObj[0];
                 Direction dir = (Direction) positionObj[1];
-                if (tiles[pos.x][pos.y].isDoor()) {
+                if (grid.isDoor(pos.x, pos.y)) {
                     if (isHallwayAdjacent(pos.x, pos.y)) {
-                        tiles[pos.x][pos.y] = islandTileSet.getDoorwayPath(null);
+                        grid.set(pos.x, pos.y, TileGrid.DOOR, 0);
                     } else {
-                        tiles[pos.x][pos.y] = islandTileSet.getWall(rand);
+                        grid.set(pos.x, pos.y, TileGrid.WALL, randomVariant(pos.x, pos.y));
                     }
                 }
             }
@@ -570,7 +756,7 @@ public class World extends Rectangle {
     private boolean isHallwayAdjacent(int x, int y) {
         for (Direction dir : Direction.values()) {
             Point nPos = Direction.translate(new Point(x, y), dir);
-            if (tiles[nPos.x][nPos.y].isHallway()) {
+            if (grid.isHallway(nPos.x, nPos.y)) {
                 return true;
             }
         }
@@ -582,27 +768,29 @@ public class World extends Rectangle {
  * <p>
  * This method checks if a tile at the given coordinates should be converted to a wall tile.
  * It ensures the tile is within bounds, not a hallway, floor, or door, and is adjacent to a hallway or within a room.
+ * Rooms are looked up in the room-id raster rather than by scanning the room list.
  *
  * @param x The x-coordinate of the tile to check.
  * @param y The y-coordinate of the tile to check.
  * @return true if the tile should be walled off, false otherwise.
  */
 private boolean wallOffHelper(int x, int y) {
-    Rectangle outerBounds = this.getBounds();
-    outerBounds.grow(-1, -1);
-    if (!outerBounds.contains(x, y) || tiles[x][y].isHallway() || tiles[x][y].isFloor() || tiles[x][y].isDoor()) {
+    if (x < 1 || y < 1 || x >= width - 1 || y >= height - 1 || grid.isWalkable(x, y)) {
         return false;
     }
 
-    for (Rectangle room : roomList) {
-        if (room.getBounds().contains(x, y)) {
+    // A room's top and right walls belong to it, but were never counted as inside it here
+    int id = roomAt(x, y);
+    if (id != NO_ROOM) {
+        Rectangle room = roomsById.get(id);
+        if (x < room.x + room.width && y < room.y + room.height) {
             return true;
         }
     }
 
     for (int i = x - 1; i <= x + 1; i++) {
         for (int j = y - 1; j <= y + 1; j++) {
-            if (tiles[i][j].isHallway()) {
+            if (grid.isHallway(i, j)) {
                 return true;
             }
         }
@@ -617,13 +805,13 @@ private boolean wallOffHelper(int x, int y) {
  * to temporary wall tiles.
  */
 public void wallOffPaths() {
-    for (int i = 1; i < width; i++) {
+    forEachIndex(1, width, i -> {
         for (int j = 1; j < height; j++) {
             if (wallOffHelper(i, j)) {
-                tiles[i][j] = islandTileSet.getTemporaryWall();
+                grid.set(i, j, TileGrid.WALL, 1);
             }
         }
-    }
+    });
 }
 
 /**
@@ -633,20 +821,79 @@ public void wallOffPaths() {
  * based on their adjacency to walls and hallways.
  */
 public void setAppropriateFloorTiles() {
-    for (int x = 0; x < width; x++) {
+    forEachIndex(0, width, x -> {
         for (int y = 0; y < height; y++) {
-            if (tiles[x][y].isFloor()) {
-                tiles[x][y] = getFloorTileType(x, y);
+            if (grid.isFloor(x, y)) {
+                grid.set(x, y, TileGrid.FLOOR, getFloorTileType(x, y));
             }
         }
+    });
+}
+
+/**
+ * Runs an independent piece of work for each index in [from, to), splitting large worlds into stripes of
+ * adjacent indices that run on the current ForkJoinPool. For per-column passes, columns are contiguous in
+ * the grid, so stripes never write to the same part of memory. What the work allocates on threads other than
+ * the calling one is added to workerAllocatedBytes, for GenerationPipeline to charge to the running stage.
+ * <p>
+ * Only use this for passes that never read what they write: wallOffPaths only turns tiles that are
+ * neither walkable nor hallways into walls and only looks for hallways and walkable tiles, while
+ * setAppropriateFloorTiles only changes floor variants and only reads kinds. Reading the grid they are
+ * writing therefore sees exactly what a separate read buffer would, and needs no copy to stay identical
+ * to the sequential order.
+ *
+ * @param from the first index
+ * @param to the index after the last
+ * @param work the work for one index
+ */
+private void forEachIndex(int from, int to, IntConsumer work) {
+    IntStream indices = IntStream.range(from, to);
+    if (parallelPasses && (long) width * height >= PARALLEL_MIN_TILES) {
+        indices = indices.parallel();
+        if (GenerationPipeline.currentThreadAllocatedBytes() >= 0) {
+            work = measuredOffThread(Thread.currentThread(), work);
+        }
     }
+    indices.forEach(work);
+}
+
+private IntConsumer measuredOffThread(Thread caller, IntConsumer work) {
+    return i -> {
+        if (Thread.currentThread() == caller) {
+            work.accept(i); // Already measured by GenerationPipeline
+            return;
+        }
+        long before = GenerationPipeline.currentThreadAllocatedBytes();
+        work.accept(i);
+        workerAllocatedBytes.add(GenerationPipeline.currentThreadAllocatedBytes() - before);
+    };
+}
+
+/**
+ * Returns how many bytes this world's parallel passes have allocated on threads other than the one that
+ * called them.
+ *
+ * @return the bytes allocated off the generating thread
+ */
+long getWorkerAllocatedBytes() {
+    return workerAllocatedBytes.sum();
+}
+
+/**
+ * Switches room placement, door choice and the post-processing passes between parallel and sequential
+ * execution, e.g. to debug them. Both produce the same world. Parallel is the default unless the island.sequentialPasses system property is true.
+ *
+ * @param parallel whether large worlds may run their passes in parallel
+ */
+public static void setParallelPasses(boolean parallel) {
+    parallelPasses = parallel;
 }
 
     public Point getRandomRoomCoords() {
-        Rectangle rm = roomList.get(rand.nextInt(0, roomList.size()));
-        return new Point(rand.nextInt((int) rm.getMinX() + 2,
+        Rectangle rm = roomList.get(spawnRand.nextInt(0, roomList.size()));
+        return new Point(spawnRand.nextInt((int) rm.getMinX() + 2,
                 (int) rm.getMaxX() - 1),
-                rand.nextInt((int) rm.getMinY() + 2,
+                spawnRand.nextInt((int) rm.getMinY() + 2,
                         (int) rm.getMaxY() - 1));
         // Avoid corners
     }
@@ -663,11 +910,11 @@ public void setAppropriateFloorTiles() {
 
             // Check north and south walls
             for (int x = minX + 1; x < maxX; x++) {
-                if (tiles[x][minY - 1].isDoor()) {
+                if (grid.isDoor(x, minY - 1)) {
                     door = true;
                     break;
                 }
-                if (tiles[x][maxY + 1].isDoor()) {
+                if (grid.isDoor(x, maxY + 1)) {
                     door = true;
                     break;
                 }
@@ -675,11 +922,11 @@ public void setAppropriateFloorTiles() {
 
             // Check east and west walls
             for (int y = minY + 1; y < maxY; y++) {
-                if (tiles[minX - 1][y].isDoor()) {
+                if (grid.isDoor(minX - 1, y)) {
                     door = true;
                     break;
                 }
-                if (tiles[maxX + 1][y].isDoor()) {
+                if (grid.isDoor(maxX + 1, y)) {
                     door = true;
                     break;
                 }
@@ -688,7 +935,8 @@ public void setAppropriateFloorTiles() {
             if (!door) {
                 for (int i = minX; i < maxX + 1; i++) {
                     for (int j = minY; j < maxY + 1; j++) {
-                        tiles[i][j] = islandTileSet.getNothing(rand);
+                        grid.set(i, j, TileGrid.NOTHING, randomVariant(i, j));
+                        roomIds[grid.index(i, j)] = 0;
                     }
                 }
                 deleteQueue.add(room);
@@ -699,39 +947,134 @@ public void setAppropriateFloorTiles() {
         }
     }
 
-    private TETile getFloorTileType(int x, int y) {
-        boolean top = y + 1 < height && (tiles[x][y + 1].isWall() || tiles[x][y + 1].isHallway());
-        boolean bottom = y - 1 >= 0 && (tiles[x][y - 1].isWall() || tiles[x][y - 1].isHallway());
-        boolean left = x - 1 >= 0 && (tiles[x - 1][y].isWall() || tiles[x - 1][y].isHallway());
-        boolean right = x + 1 < width && (tiles[x + 1][y].isWall() || tiles[x + 1][y].isHallway());
+    private byte getFloorTileType(int x, int y) {
+        boolean top = y + 1 < height && (grid.isWall(x, y + 1) || grid.isHallway(x, y + 1));
+        boolean bottom = y - 1 >= 0 && (grid.isWall(x, y - 1) || grid.isHallway(x, y - 1));
+        boolean left = x - 1 >= 0 && (grid.isWall(x - 1, y) || grid.isHallway(x - 1, y));
+        boolean right = x + 1 < width && (grid.isWall(x + 1, y) || grid.isHallway(x + 1, y));
 
         if (top && left) {
-            return islandTileSet.getFloorTopLeftCorner();
+            return IslandTileSet.FLOOR_TOP_LEFT_CORNER;
         } else if (bottom && left) {
-            return islandTileSet.getFloorBottomLeftCorner();
+            return IslandTileSet.FLOOR_BOTTOM_LEFT_CORNER;
         } else if (bottom && right) {
-            return islandTileSet.getFloorRightBottomCorner();
+            return IslandTileSet.FLOOR_RIGHT_BOTTOM_CORNER;
         } else if (top && right) {
-            return islandTileSet.getFloorRightTopCorner();
+            return IslandTileSet.FLOOR_RIGHT_TOP_CORNER;
         } else if (top) {
-            return islandTileSet.getFloorTopMiddleEdge();
+            return IslandTileSet.FLOOR_TOP_MIDDLE_EDGE;
         } else if (bottom) {
-            return islandTileSet.getFloorMiddleBottomEdge();
+            return IslandTileSet.FLOOR_MIDDLE_BOTTOM_EDGE;
         } else if (left) {
-            return islandTileSet.getFloorLeftMiddleEdge();
+            return IslandTileSet.FLOOR_LEFT_MIDDLE_EDGE;
         } else if (right) {
-            return islandTileSet.getFloorRightMiddleEdge();
+            return IslandTileSet.FLOOR_RIGHT_MIDDLE_EDGE;
         } else {
-            return islandTileSet.getFloorCenter();
+            return IslandTileSet.FLOOR_CENTER;
         }
     }
 
+    /**
+     * Picks one of the image variants shared by nothing and wall tiles. The pick depends only on the seed and
+     * the tile's position, so it is the same whichever pass, thread or order sets the tile.
+     */
+    private int randomVariant(int x, int y) {
+        return streams.pick(RandomStreams.Purpose.VARIANTS, grid.index(x, y), 1, IslandTileSet.NUM_IMAGE_VARIANTS + 1);
+    }
+
     public void switchViews(boolean isometric) {
-        this.islandTileSet.switchTileImages(isometric, tiles);
+        this.islandTileSet.switchTileImages(isometric);
+        this.tiles = null;
     }
 
+    /**
+     * Returns a TETile view of the world, building it from the grid the first time it is requested
+     * after generation or a view switch. Changes made to the returned array (such as the player tile)
+     * do not affect the grid.
+     *
+     * @return the world's tiles
+     */
     public TETile[][] getTiles() {
+        if (tiles == null) {
+            tiles = islandTileSet.toTiles(grid);
+        }
         return tiles;
     }
 
+    /**
+     * Returns the number of rooms left in the world after generation.
+     *
+     * @return the number of rooms
+     */
+    public int getNumRooms() {
+        return roomList.size();
+    }
+
+    /**
+     * Returns the room spread, "packed" or "scattered", after the seed has chosen it if it was not given.
+     *
+     * @return the spread
+     */
+    public String getSpread() {
+        return spread;
+    }
+
+    /**
+     * Returns the map shape after the seed has chosen it if it was not given.
+     *
+     * @return the map shape
+     */
+    public String getMapShape() {
+        return mapShape;
+    }
+
+    /**
+     * Returns the chance, out of 100, that a hallway keeps its direction.
+     *
+     * @return the continuation percentage
+     */
+    public int getContinuePercentage() {
+        return continuePercentage;
+    }
+
+    /**
+     * Returns the id of the room covering a tile, walls included. Ids are assigned in the order rooms
+     * were placed and stay the same after rooms are cleaned away.
+     *
+     * @param x the x-coordinate of the tile
+     * @param y the y-coordinate of the tile
+     * @return the room's id, or NO_ROOM if the tile is not part of a room
+     */
+    public int roomAt(int x, int y) {
+        return roomIds[grid.index(x, y)] - 1;
+    }
+
+    /**
+     * Returns the bounds of the room with the given id, as returned by roomAt.
+     *
+     * @param id the room's id
+     * @return the room's bounds
+     */
+    public Rectangle getRoomBounds(int id) {
+        return roomsById.get(id).getBounds();
+    }
+
+    /**
+     * Returns how long each generation stage took and how much it allocated.
+     *
+     * @return the generation report
+     */
+    public GenerationReport getGenerationReport() {
+        return generationReport;
+    }
+
+    /**
+     * Returns the compact tile storage backing this world.
+     *
+     * @return the world's tile grid
+     */
+    public TileGrid getGrid() {
+        return grid;
+    }
+
 }
\ No newline at end of file
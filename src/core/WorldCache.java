@@ -0,0 +1,300 @@
+package core;
+
+import tileengine.IslandTileSet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Caches generated worlds so that loading a large world again is a single file read instead of a full
+ * regeneration. Worlds are keyed by a hash of their creation-parameter string and kept both in memory and
+ * on disk, each in least-recently-used order under a size limit. Every entry ends with a CRC32 of its
+ * contents; entries that fail the check or do not match their parameters are discarded and regenerated.
+ * <p>
+ * Worlds that generate faster than MIN_CACHED_MILLIS are not cached, since reading them back would not be
+ * noticeably faster than regenerating them.
+ */
+public class WorldCache {
+    public static final long MIN_CACHED_MILLIS = 200;
+    private static final int MAGIC = 0x49534C57; // "ISLW"
+    private static final int VERSION = 3;
+    private static final String EXTENSION = ".world";
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final long STALE_TEMP_MILLIS = 10 * 60 * 1000; // Older temp files are no longer being written
+    private static final WorldCache SHARED = new WorldCache(Path.of(".worldcache"), 64L << 20, 512L << 20);
+
+    private final Path directory;
+    private final long maxMemoryBytes;
+    private final long maxDiskBytes;
+    private final Map<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes = 0;
+
+    /**
+     * Constructs a WorldCache.
+     *
+     * @param directory the directory cached worlds are stored in
+     * @param maxMemoryBytes the most bytes of encoded worlds to keep in memory
+     * @param maxDiskBytes the most bytes of cached worlds to keep in the directory
+     */
+    public WorldCache(Path directory, long maxMemoryBytes, long maxDiskBytes) {
+        this.directory = directory;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskBytes = maxDiskBytes;
+    }
+
+    /**
+     * Returns the cache GameEngine loads worlds through, stored in ".worldcache" next to the save file.
+     *
+     * @return the shared cache
+     */
+    public static WorldCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the cached world for the given parameters, generating and caching it if there is none.
+     *
+     * @param params the world creation parameters
+     * @param tileSet the tile set the world draws its tiles from
+     * @return the world
+     */
+    public synchronized World getOrCreate(WorldParams params, IslandTileSet tileSet) {
+        World world = get(params, tileSet);
+        if (world == null) {
+            world = params.createWorld(tileSet);
+            if (world.getGenerationReport().getTotalNanos() >= MIN_CACHED_MILLIS * 1_000_000) {
+                put(params, world);
+            }
+        }
+        return world;
+    }
+
+    /**
+     * Returns the cached world for the given parameters.
+     *
+     * @param params the world creation parameters
+     * @param tileSet the tile set the world draws its tiles from
+     * @return the world, or null if it is not cached
+     */
+    public synchronized World get(WorldParams params, IslandTileSet tileSet) {
+        String key = key(params);
+        byte[] entry = memory.get(key);
+        if (entry == null) {
+            entry = readFromDisk(key, params);
+            if (entry == null) {
+                return null;
+            }
+            remember(key, entry);
+        }
+
+        try {
+            return decode(entry, params, tileSet);
+        } catch (IOException e) {
+            forget(key);
+            return null;
+        }
+    }
+
+    /**
+     * Caches a generated world.
+     *
+     * @param params the parameters the world was created from
+     * @param world the world
+     */
+    public synchronized void put(WorldParams params, World world) {
+        String key = key(params);
+        byte[] entry;
+        try {
+            entry = encode(params, world);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        remember(key, entry);
+
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, key, TEMP_EXTENSION);
+            Files.write(temp, entry);
+            Files.move(temp, directory.resolve(key + EXTENSION), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            trimDisk();
+        } catch (IOException e) {
+            System.err.println("Could not cache world " + params + ": " + e.getMessage());
+        } finally {
+            if (temp != null) {
+                deleteQuietly(temp); // Only still there if it was never moved into place
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Removed by trimDisk once it is stale
+        }
+    }
+
+    /**
+     * Encodes a world as the header, the world itself and a CRC32 of both.
+     */
+    private static byte[] encode(WorldParams params, World world) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(params.toString());
+        world.write(out);
+        out.flush();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        return bytes.toByteArray();
+    }
+
+    private static World decode(byte[] entry, WorldParams params, IslandTileSet tileSet) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry, 0, entry.length - Long.BYTES));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION || !in.readUTF().equals(params.toString())) {
+            throw new IOException("Cached world does not match " + params);
+        }
+        return new World(in, tileSet);
+    }
+
+    /**
+     * Reads a cached world's file and checks its checksum, deleting the file if the check fails.
+     *
+     * @return the file's contents, or null if there is no valid file
+     */
+    private byte[] readFromDisk(String key, WorldParams params) {
+        Path file = directory.resolve(key + EXTENSION);
+        try {
+            if (!Files.exists(file)) {
+                return null;
+            }
+            byte[] entry = Files.readAllBytes(file);
+            if (entry.length < Long.BYTES || checksum(entry) != ByteBuffer.wrap(entry, entry.length - Long.BYTES, Long.BYTES).getLong()) {
+                System.err.println("Discarding corrupt cached world " + params);
+                Files.deleteIfExists(file);
+                return null;
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return entry;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static long checksum(byte[] entry) {
+        CRC32 crc = new CRC32();
+        crc.update(entry, 0, entry.length - Long.BYTES);
+        return crc.getValue();
+    }
+
+    /**
+     * Keeps an entry in memory, evicting the least recently used entries to stay under the memory limit.
+     */
+    private void remember(String key, byte[] entry) {
+        forgetFromMemory(key);
+        if (entry.length > maxMemoryBytes) {
+            return;
+        }
+        memory.put(key, entry);
+        memoryBytes += entry.length;
+
+        Iterator<byte[]> eldest = memory.values().iterator();
+        while (memoryBytes > maxMemoryBytes) {
+            memoryBytes -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+
+    private void forgetFromMemory(String key) {
+        byte[] old = memory.remove(key);
+        if (old != null) {
+            memoryBytes -= old.length;
+        }
+    }
+
+    private void forget(String key) {
+        forgetFromMemory(key);
+        try {
+            Files.deleteIfExists(directory.resolve(key + EXTENSION));
+        } catch (IOException ignored) {
+            // The entry will fail its check again next time
+        }
+    }
+
+    /**
+     * Deletes the least recently used cached files until the directory is under the disk limit, and temp files
+     * left behind by writes that failed, e.g. in another process, once they are older than STALE_TEMP_MILLIS.
+     */
+    private void trimDisk() throws IOException {
+        List<Path> files;
+        List<Path> temps;
+        try (Stream<Path> listing = Files.list(directory)) {
+            List<Path> all = listing.toList();
+            files = all.stream()
+                    .filter(file -> file.toString().endsWith(EXTENSION))
+                    .sorted(Comparator.comparing(WorldCache::lastModified))
+                    .toList();
+            temps = all.stream().filter(file -> file.toString().endsWith(TEMP_EXTENSION)).toList();
+        }
+
+        long staleBefore = System.currentTimeMillis() - STALE_TEMP_MILLIS;
+        for (Path temp : temps) {
+            if (lastModified(temp).toMillis() < staleBefore) {
+                deleteQuietly(temp);
+            }
+        }
+
+        long total = 0;
+        for (Path file : files) {
+            total += Files.size(file);
+        }
+        for (Iterator<Path> oldest = files.iterator(); total > maxDiskBytes && oldest.hasNext(); ) {
+            Path file = oldest.next();
+            total -= Files.size(file);
+            Files.delete(file);
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    /**
+     * Hashes a creation-parameter string into a file-name-safe key.
+     */
+    private static String key(WorldParams params) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(params.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
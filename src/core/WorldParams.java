@@ -0,0 +1,126 @@
+package core;
+
+import tileengine.IslandTileSet;
+
+/**
+ * The parameters a World is created from. Their string form is the creation-parameter part of a
+ * save file: "seed,height,width,spread,shape,minRoomDim,maxRoomDim,continuation,continuePercentage",
+ * where null strings and -1 numbers let the seed choose the setting.
+ */
+public class WorldParams {
+    private final long seed;
+    private final int height;
+    private final int width;
+    private final String spread;
+    private final String shape;
+    private final int minRoomDim;
+    private final int maxRoomDim;
+    private final String continuation;
+    private final int continuePercentage;
+
+    /**
+     * Constructs WorldParams with the specified parameters.
+     *
+     * @param seed the seed for world generation
+     * @param height the height of the world
+     * @param width the width of the world
+     * @param spread the spread type
+     * @param shape the shape type
+     * @param minRoomDim the minimum room dimension
+     * @param maxRoomDim the maximum room dimension
+     * @param continuation the continuation type
+     * @param continuePercentage the continuation percentage
+     */
+    public WorldParams(long seed, int height, int width, String spread, String shape, int minRoomDim, int maxRoomDim, String continuation, int continuePercentage) {
+        this.seed = seed;
+        this.height = height;
+        this.width = width;
+        this.spread = spread;
+        this.shape = shape;
+        this.minRoomDim = minRoomDim;
+        this.maxRoomDim = maxRoomDim;
+        this.continuation = continuation;
+        this.continuePercentage = continuePercentage;
+    }
+
+    /**
+     * Parses parameters from their string form.
+     *
+     * @param params the comma-separated parameters, as produced by toString()
+     * @return the parsed parameters
+     */
+    public static WorldParams fromString(String params) {
+        String[] args = params.split(",");
+        return new WorldParams(
+                Long.parseLong(args[0]),
+                Integer.parseInt(args[1]),
+                Integer.parseInt(args[2]),
+                args[3].equals("null") ? null : args[3],
+                args[4].equals("null") ? null : args[4],
+                Integer.parseInt(args[5]),
+                Integer.parseInt(args[6]),
+                args[7].equals("null") ? null : args[7],
+                Integer.parseInt(args[8])
+        );
+    }
+
+    /**
+     * Returns a copy of these parameters with a different seed.
+     *
+     * @param seed the new seed
+     * @return the parameters for the new seed
+     */
+    public WorldParams withSeed(long seed) {
+        return new WorldParams(seed, height, width, spread, shape, minRoomDim, maxRoomDim, continuation, continuePercentage);
+    }
+
+    /**
+     * Generates the world described by these parameters.
+     *
+     * @param tileSet the tile set the world draws its tiles from
+     * @return the generated world
+     */
+    public World createWorld(IslandTileSet tileSet) {
+        return new World(seed, height, width, spread, shape, minRoomDim, maxRoomDim, continuation, continuePercentage, tileSet);
+    }
+
+    /**
+     * Generates one chunk of an infinite world: a size x size rectangular island that uses these
+     * parameters' room and corridor settings.
+     *
+     * @param chunkSeed the seed of the chunk
+     * @param size the side length of the chunk
+     * @param tileSet the tile set the chunk draws its tiles from
+     * @return the generated chunk
+     */
+    public World createChunk(long chunkSeed, int size, IslandTileSet tileSet) {
+        return new World(chunkSeed, size, size, spread, "rectangular", minRoomDim, maxRoomDim, continuation, continuePercentage, tileSet);
+    }
+
+    /**
+     * Returns whether these parameters describe an infinite world, which is streamed in chunks by
+     * ChunkedWorld rather than generated as a single World.
+     *
+     * @return true if the shape is "infinite"
+     */
+    public boolean isInfinite() {
+        return "infinite".equals(shape);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public String toString() {
+        return seed + "," + height + "," + width + "," + spread + "," + shape + "," + minRoomDim + "," + maxRoomDim + "," + continuation + "," + continuePercentage;
+    }
+}
@@ -0,0 +1,50 @@
+package core;
+
+import tileengine.TileGrid;
+
+/**
+ * Statistics of a generated world that seed searches can filter on.
+ *
+ * @param seed the seed the world was generated from
+ * @param rooms the number of rooms left after generation
+ * @param walkableTiles the number of floor, hallway and door tiles
+ * @param hallwayTiles the number of hallway tiles
+ * @param straightHallwayRatio the fraction of hallway tiles that continue straight on both sides
+ * @param shape the map shape
+ * @param spread the room spread
+ * @param continuePercentage the chance, out of 100, that a hallway keeps its direction
+ */
+public record WorldStats(long seed, int rooms, int walkableTiles, int hallwayTiles, double straightHallwayRatio,
+                         String shape, String spread, int continuePercentage) {
+
+    /**
+     * Measures a generated world.
+     *
+     * @param seed the seed the world was generated from
+     * @param world the world
+     * @return the world's statistics
+     */
+    public static WorldStats of(long seed, World world) {
+        TileGrid grid = world.getGrid();
+        int hallways = 0;
+        int straight = 0;
+        for (int x = 1; x < grid.getWidth() - 1; x++) {
+            for (int y = 1; y < grid.getHeight() - 1; y++) {
+                if (!grid.isHallway(x, y)) {
+                    continue;
+                }
+                hallways++;
+                boolean up = grid.isWalkable(x, y + 1);
+                boolean down = grid.isWalkable(x, y - 1);
+                boolean left = grid.isWalkable(x - 1, y);
+                boolean right = grid.isWalkable(x + 1, y);
+                if ((up && down && !left && !right) || (left && right && !up && !down)) {
+                    straight++;
+                }
+            }
+        }
+        return new WorldStats(seed, world.getNumRooms(), grid.countWalkable(), hallways,
+                hallways == 0 ? 0 : (double) straight / hallways,
+                world.getMapShape(), world.getSpread(), world.getContinuePercentage());
+    }
+}
@@ -0,0 +1,134 @@
+package test;
+
+import core.EntityStore;
+import core.Player;
+import core.World;
+import org.junit.jupiter.api.Test;
+import tileengine.IslandTileSet;
+import tileengine.OffscreenTarget;
+import tileengine.TERenderer;
+import tileengine.TETile;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+/**
+ * Entity store tests: wandering NPCs stay on walkable cells, wander the same way however many threads update
+ * them, and are drawn over the world without changing it.
+ */
+public class EntityStoreTests {
+    private static final TETile NPC = new TETile('N', Color.orange, Color.black, "islander", null, 16);
+    private static final long TICK_NANOS = 50_000_000L;
+
+    /**
+     * Spawns a crowd on a world and walks it for a number of ticks, returning where each entity ends up.
+     */
+    private static List<Point> wander(TETile[][] tiles, IslandTileSet tileSet, int count, int ticks) {
+        EntityStore npcs = new EntityStore(7, NPC, Player.walkClips(tileSet));
+        npcs.spawn(count, tiles);
+        for (int tick = 0; tick < ticks; tick++) {
+            npcs.update(TICK_NANOS, tiles);
+        }
+        List<Point> positions = new ArrayList<>();
+        for (int i = 0; i < npcs.size(); i++) {
+            positions.add(npcs.getPos(i));
+        }
+        return positions;
+    }
+
+    /**
+     * A crowd large enough to be updated in parallel wanders the same way with 1 or 4 threads, only ever stands
+     * on floors, hallways and doors, and leaves the world's tiles as they were.
+     */
+    @Test
+    void crowdsWanderTheSameOnAnyNumberOfThreads() throws Exception {
+        IslandTileSet tileSet = new IslandTileSet();
+        World world = new World(3, 200, 200, null, null, -1, -1, null, -1, tileSet);
+        TETile[][] tiles = world.getTiles();
+        long checksum = TestingHelpers.checksum(tiles);
+
+        List<Point> expected = null;
+        for (int threads : new int[]{1, 4}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                List<Point> positions = pool.submit(() -> wander(tiles, tileSet, 5000, 100)).get();
+                if (expected == null) {
+                    expected = positions;
+                }
+                assertWithMessage("Positions with " + threads + " threads").that(positions).isEqualTo(expected);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        assertThat(expected).hasSize(5000);
+        int moved = 0;
+        List<Point> start = wander(tiles, tileSet, 5000, 0);
+        for (int i = 0; i < expected.size(); i++) {
+            Point pos = expected.get(i);
+            TETile tile = tiles[pos.x][pos.y];
+            assertWithMessage("Tile under entity " + i).that(tile.isFloor() || tile.isHallway() || tile.isDoor()).isTrue();
+            if (!pos.equals(start.get(i))) {
+                moved++;
+            }
+        }
+        assertWithMessage("Entities that moved").that(moved).isGreaterThan(2500);
+        assertWithMessage("World checksum").that(TestingHelpers.checksum(tiles)).isEqualTo(checksum);
+    }
+
+    /**
+     * Entities are drawn over frames copied from a static layer without reporting any dirty cells, and those
+     * frames match frames drawn tile by tile with the same overlay.
+     */
+    @Test
+    void drawsOverTheStaticLayer() {
+        IslandTileSet tileSet = new IslandTileSet();
+        World world = new World(0, 75, 150, null, "rectangular", -1, -1, null, -1, tileSet);
+        TETile[][] tiles = world.getTiles();
+        EntityStore npcs = new EntityStore(1, NPC, Player.walkClips(tileSet));
+        npcs.spawn(500, tiles);
+
+        OffscreenTarget layeredTarget = new OffscreenTarget();
+        OffscreenTarget directTarget = new OffscreenTarget();
+        OffscreenTarget bareTarget = new OffscreenTarget();
+        TERenderer layered = new TERenderer(layeredTarget, 640, 480);
+        TERenderer direct = new TERenderer(directTarget, 640, 480);
+        TERenderer bare = new TERenderer(bareTarget, 640, 480);
+        for (TERenderer renderer : new TERenderer[]{layered, direct, bare}) {
+            renderer.initialize(tiles.length, tiles[0].length);
+        }
+        layered.setStaticLayer(true);
+        layered.setOverlay(npcs);
+        direct.setOverlay(npcs);
+
+        Point center = new Point(tiles.length / 2, tiles[0].length / 2);
+        for (int frame = 0; frame < 30; frame++) {
+            npcs.update(TICK_NANOS, tiles);
+            layered.renderFrame(tiles, center);
+            direct.renderFrame(tiles, center);
+            for (int x = 0; x < 640; x++) {
+                for (int y = 0; y < 480; y++) {
+                    if (layeredTarget.getCanvas().getRGB(x, y) != directTarget.getCanvas().getRGB(x, y)) {
+                        assertWithMessage("Pixel " + x + ", " + y + " of frame " + frame + " differs").fail();
+                    }
+                }
+            }
+        }
+
+        bare.renderFrame(tiles, center);
+        int differing = 0;
+        for (int x = 0; x < 640; x++) {
+            for (int y = 0; y < 480; y++) {
+                if (directTarget.getCanvas().getRGB(x, y) != bareTarget.getCanvas().getRGB(x, y)) {
+                    differing++;
+                }
+            }
+        }
+        assertWithMessage("Pixels covered by entities").that(differing).isGreaterThan(0);
+    }
+}
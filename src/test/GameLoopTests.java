@@ -0,0 +1,64 @@
+package test;
+
+import core.GameLoop;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+/**
+ * Game loop tests. They run in real time, so they only check bounds that hold however slow the machine is.
+ */
+public class GameLoopTests {
+
+    /**
+     * Ticks never run faster than the tick rate, and frames never faster than the frame cap.
+     */
+    @Test
+    void runsFixedTicksAndCapsFrames() {
+        GameLoop loop = new GameLoop(50, 20);
+        long[] ticks = {0};
+        long[] frames = {0};
+        long start = System.nanoTime();
+        loop.run(() -> ++ticks[0] < 60, () -> frames[0]++);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertWithMessage("60 ticks at 50 per second take at least 59 tick intervals")
+                .that(seconds)
+                .isAtLeast(59 / 50.0);
+        assertWithMessage("Frames should be capped at 20 per second")
+                .that((double) frames[0])
+                .isAtMost(seconds * 20 + 1);
+        assertWithMessage("Frames should be rendered").that(frames[0]).isAtLeast(1L);
+        assertWithMessage("Every tick should be counted but the one that stopped the loop")
+                .that(loop.getTotalTicks())
+                .isEqualTo(59L);
+    }
+
+    /**
+     * When frames take longer than several ticks, only a few missed ticks are caught up before the next frame
+     * and the rest are dropped.
+     */
+    @Test
+    void dropsTicksInsteadOfSpiraling() {
+        GameLoop loop = new GameLoop(100, 100);
+        int[] ticksSinceFrame = {0};
+        int[] mostTicksBetweenFrames = {0};
+        long[] frames = {0};
+        loop.run(() -> {
+            ticksSinceFrame[0]++;
+            return frames[0] < 5;
+        }, () -> {
+            mostTicksBetweenFrames[0] = Math.max(mostTicksBetweenFrames[0], ticksSinceFrame[0]);
+            ticksSinceFrame[0] = 0;
+            frames[0]++;
+            try {
+                Thread.sleep(200); // 20 ticks' worth
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertWithMessage("Ticks caught up between frames").that(mostTicksBetweenFrames[0]).isAtMost(5);
+        assertWithMessage("Ticks run overall").that(loop.getTotalTicks()).isLessThan(5L * 20);
+    }
+}
@@ -0,0 +1,451 @@
+package test;
+
+import core.ClipRegistry;
+import core.Direction;
+import core.FrameSnapshot;
+import core.IsometricPlayer;
+import core.IsometricTERenderer;
+import core.Player;
+import core.RenderThread;
+import core.World;
+import org.junit.jupiter.api.Test;
+import tileengine.IslandTileSet;
+import tileengine.OffscreenTarget;
+import tileengine.TERenderer;
+import tileengine.TETile;
+import tileengine.TileImages;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+/**
+ * Renderer tests, drawn into an OffscreenTarget so they run without a display.
+ */
+public class RendererTests {
+
+    /**
+     * Counts the pixels of a canvas that are not black.
+     */
+    static int countDrawnPixels(OffscreenTarget target) {
+        int drawn = 0;
+        for (int x = 0; x < target.getCanvas().getWidth(); x++) {
+            for (int y = 0; y < target.getCanvas().getHeight(); y++) {
+                if ((target.getCanvas().getRGB(x, y) & 0xffffff) != 0) {
+                    drawn++;
+                }
+            }
+        }
+        return drawn;
+    }
+
+    /**
+     * An OffscreenTarget that counts the tile images drawn into it.
+     */
+    static class CountingTarget extends OffscreenTarget {
+        long pictures;
+
+        @Override
+        public void picture(double x, double y, BufferedImage image) {
+            pictures++;
+            super.picture(x, y, image);
+        }
+    }
+
+    /**
+     * Returns a world of the given size filled with one tile.
+     */
+    static TETile[][] filledWorld(int width, int height, TETile tile) {
+        TETile[][] tiles = new TETile[width][height];
+        for (TETile[] column : tiles) {
+            Arrays.fill(column, tile);
+        }
+        return tiles;
+    }
+
+    /**
+     * Both renderers can draw a frame offscreen, covering most of the canvas with tiles.
+     */
+    @Test
+    void rendersFramesOffscreen() {
+        for (boolean isometric : new boolean[]{false, true}) {
+            World world = new World(0, 75, 150, null, "rectangular", -1, -1, null, -1, new IslandTileSet());
+            world.switchViews(isometric);
+            TETile[][] tiles = world.getTiles();
+            OffscreenTarget target = new OffscreenTarget();
+            TERenderer renderer = isometric ? new IsometricTERenderer(target, 640, 480) : new TERenderer(target, 640, 480);
+            renderer.initialize(tiles.length, tiles[0].length);
+
+            renderer.renderFrame(tiles, new Point(tiles.length / 2, tiles[0].length / 2));
+            assertWithMessage("One frame should have been shown").that(target.getFrameCount()).isEqualTo(1L);
+            assertWithMessage("Most of the canvas should be drawn, isometric: " + isometric)
+                    .that(countDrawnPixels(target) > 640 * 480 / 2)
+                    .isTrue();
+        }
+    }
+
+    /**
+     * Tile images are decoded once: a tile returns the same image every time, tiles drawn from the same
+     * file share it, and the other view's tile has its own.
+     */
+    @Test
+    void decodesTileImagesOnce() {
+        IslandTileSet tileSet = new IslandTileSet();
+        TETile hallway = tileSet.getTemporaryHallway();
+        TETile door = tileSet.getTemporaryDoorway();
+        assertThat(hallway.getSprite()).isNotNull();
+        assertThat(hallway.getSprite()).isSameInstanceAs(hallway.getSprite());
+        assertThat(door.getSprite()).isSameInstanceAs(hallway.getSprite());
+        assertThat(TileImages.get(hallway.getFilePath())).isSameInstanceAs(hallway.getSprite());
+
+        tileSet.switchTileImages(true);
+        assertThat(tileSet.getTemporaryHallway().getSprite()).isNotSameInstanceAs(hallway.getSprite());
+    }
+
+    /**
+     * Animations pick their frame by the time they have played at their clip's frame rate, however that time is
+     * split into steps, and stop on their first frame after their last cycle.
+     */
+    @Test
+    void animatesByElapsedTime() {
+        IslandTileSet tileSet = new IslandTileSet();
+        Player stepped = new Player(Direction.DOWN, tileSet);
+        Player jumped = new Player(Direction.DOWN, tileSet);
+        BufferedImage first = stepped.getSprite();
+        stepped.start();
+        jumped.start();
+
+        for (int i = 0; i < 9; i++) {
+            stepped.advance(10_000_000L);
+        }
+        assertWithMessage("Frame shown for the first 100 ms at 10 FPS").that(stepped.getSprite()).isSameInstanceAs(first);
+        stepped.advance(10_000_000L);
+        jumped.advance(100_000_000L);
+        assertWithMessage("Frame after 100 ms").that(stepped.getSprite()).isNotSameInstanceAs(first);
+        assertWithMessage("Frame after 100 ms in one step").that(jumped.getSprite()).isSameInstanceAs(stepped.getSprite());
+
+        stepped.advance(300_000_000L);
+        jumped.advance(300_000_000L);
+        assertWithMessage("Frames of the same time match").that(jumped.getSprite()).isSameInstanceAs(stepped.getSprite());
+
+        stepped.advance(600_000_000L); // Two cycles of 5 frames have played
+        assertWithMessage("Frame once stopped").that(stepped.getSprite()).isSameInstanceAs(first);
+        stepped.advance(100_000_000L);
+        assertWithMessage("A stopped animation no longer advances").that(stepped.getSprite()).isSameInstanceAs(first);
+    }
+
+    /**
+     * Players share clips sliced once per sprite sheet and animation, so creating players, turning and
+     * switching views neither reads the sheet nor slices frames again.
+     */
+    @Test
+    void sharesSlicedClips() {
+        IslandTileSet tileSet = new IslandTileSet();
+        TETile[][] tiles = filledWorld(3, 3, tileSet.getTemporaryHallway());
+        IslandTileSet isoTileSet = new IslandTileSet();
+        isoTileSet.switchTileImages(true);
+        Player player = new Player(Direction.DOWN, tileSet);
+        new IsometricPlayer(Direction.DOWN, isoTileSet);
+        int clips = ClipRegistry.size();
+        int images = TileImages.size();
+
+        assertThat(new Player(Direction.DOWN, tileSet).getSprite()).isSameInstanceAs(player.getSprite());
+        player.setPos(new Point(1, 1), tiles[1][1]);
+        player.move(Direction.LEFT, tiles);
+        assertThat(player.getSprite()).isSameInstanceAs(new Player(Direction.LEFT, tileSet).getSprite());
+        assertThat(new IsometricPlayer(Direction.LEFT, isoTileSet).getSprite()).isNotSameInstanceAs(player.getSprite());
+        assertWithMessage("Clips sliced").that(ClipRegistry.size()).isEqualTo(clips);
+        assertWithMessage("Images decoded").that(TileImages.size()).isEqualTo(images);
+    }
+
+    /**
+     * The player is composited over the tiles it walks on in memory, so animating and drawing it writes no
+     * files.
+     */
+    @Test
+    void animatesWithoutWritingFiles() {
+        File temps = new File("assets", "temps");
+        String[] before = temps.list();
+        for (boolean isometric : new boolean[]{false, true}) {
+            IslandTileSet tileSet = new IslandTileSet();
+            World world = new World(0, 75, 150, null, "rectangular", -1, -1, null, -1, tileSet);
+            world.switchViews(isometric);
+            TETile[][] tiles = world.getTiles();
+            OffscreenTarget target = new OffscreenTarget();
+            TERenderer renderer = isometric ? new IsometricTERenderer(target, 640, 480) : new TERenderer(target, 640, 480);
+            renderer.initialize(tiles.length, tiles[0].length);
+
+            Point start = world.getRandomRoomCoords();
+            Player player = isometric ? new IsometricPlayer(Direction.DOWN, tileSet) : new Player(Direction.DOWN, tileSet);
+            player.setPos(start, tiles[start.x][start.y]);
+            tiles[start.x][start.y] = player;
+            for (int frame = 0; frame < 40; frame++) {
+                if (frame % 8 == 0) {
+                    player.move(frame % 16 == 0 ? Direction.LEFT : Direction.RIGHT, tiles);
+                }
+                player.advance(50_000_000L);
+                renderer.renderFrame(tiles, player.getPos());
+            }
+            assertThat(target.getFrameCount()).isEqualTo(40L);
+        }
+        String[] after = temps.list();
+        assertWithMessage("No sprite files should be written")
+                .that(after == null ? 0 : after.length)
+                .isEqualTo(before == null ? 0 : before.length);
+    }
+
+    /**
+     * A TERenderer that draws every tile of the world, to compare culled frames against.
+     */
+    static class UnculledRenderer extends TERenderer {
+        UnculledRenderer(OffscreenTarget target, int canvasWidth, int canvasHeight) {
+            super(target, canvasWidth, canvasHeight);
+        }
+
+        @Override
+        public void drawTiles(TETile[][] world) {
+            for (int x = 0; x < numXTiles; x++) {
+                for (int y = 0; y < numYTiles; y++) {
+                    world[x][y].draw(target, x * tileWidth + x_Offset, y * tileHeight + y_Offset);
+                }
+            }
+        }
+    }
+
+    /**
+     * TERenderer only draws the tiles around its canvas: its frames are the same as when every tile is drawn,
+     * and a frame of a 2000x2000 world draws as many tiles as a frame of a 200x200 world, wherever the view is.
+     */
+    @Test
+    void drawsOnlyVisibleTilesOfLargeWorlds() {
+        TETile[][] world = new World(0, 75, 150, null, "rectangular", -1, -1, null, -1, new IslandTileSet()).getTiles();
+        for (Point center : new Point[]{new Point(0, 0), new Point(40, 60), new Point(world.length - 1, world[0].length - 1)}) {
+            OffscreenTarget culled = new OffscreenTarget();
+            OffscreenTarget unculled = new OffscreenTarget();
+            TERenderer renderer = new TERenderer(culled, 640, 480);
+            TERenderer reference = new UnculledRenderer(unculled, 640, 480);
+            renderer.initialize(world.length, world[0].length);
+            reference.initialize(world.length, world[0].length);
+            renderer.renderFrame(world, center);
+            reference.renderFrame(world, center);
+            for (int x = 0; x < 640; x++) {
+                for (int y = 0; y < 480; y++) {
+                    if (culled.getCanvas().getRGB(x, y) != unculled.getCanvas().getRGB(x, y)) {
+                        assertWithMessage("Pixel " + x + ", " + y + " centered on " + center + " differs").fail();
+                    }
+                }
+            }
+        }
+
+        TETile hallway = new IslandTileSet().getTemporaryHallway();
+        long maxPictures = (1440 / 16 + 6) * (752 / 16 + 6);
+        int[] sizes = {200, 2000};
+        long[] pictures = new long[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            TETile[][] tiles = filledWorld(sizes[i], sizes[i], hallway);
+            for (Point center : new Point[]{new Point(0, 0), new Point(sizes[i] / 2, sizes[i] / 3),
+                    new Point(sizes[i] - 1, sizes[i] - 1)}) {
+                CountingTarget target = new CountingTarget();
+                TERenderer renderer = new TERenderer(target, 1440, 752);
+                renderer.initialize(sizes[i], sizes[i]);
+                renderer.renderFrame(tiles, center);
+                assertWithMessage("Tiles drawn centered on " + center + " of a " + sizes[i] + " world")
+                        .that(target.pictures)
+                        .isAtMost(maxPictures);
+                pictures[i] += target.pictures;
+            }
+        }
+        assertWithMessage("A larger world should not draw more tiles").that(pictures[1]).isEqualTo(pictures[0]);
+    }
+
+    /**
+     * An IsometricTERenderer that draws every tile of the world back to front, to compare culled frames
+     * against.
+     */
+    static class UnculledIsometricRenderer extends IsometricTERenderer {
+        private final int tileSize;
+
+        UnculledIsometricRenderer(OffscreenTarget target, int canvasWidth, int canvasHeight, double zoom) {
+            super(target, canvasWidth, canvasHeight);
+            this.tileSize = (int) (32 * zoom);
+        }
+
+        @Override
+        public void drawTiles(TETile[][] world) {
+            for (int s = numXTiles + numYTiles - 2; s >= 0; s--) {
+                for (int x = numXTiles - 1; x >= 0; x--) {
+                    int y = s - x;
+                    if (y >= 0 && y < numYTiles) {
+                        world[x][y].draw(target, (x - y) * tileSize / 2 + x_Offset, (x + y) * tileSize / 4 + y_Offset);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * IsometricTERenderer only visits the tiles around its canvas, at every zoom: its frames are the same as
+     * when every tile is drawn back to front, and a 2000x2000 world draws as many tiles as a 200x200 world.
+     */
+    @Test
+    void drawsOnlyVisibleIsometricTilesOfLargeWorlds() {
+        World generated = new World(0, 75, 150, null, "rectangular", -1, -1, null, -1, new IslandTileSet());
+        generated.switchViews(true);
+        TETile[][] world = generated.getTiles();
+        for (double zoom : new double[]{0.75, 1.0, 1.05, 1.27}) {
+            for (Point center : new Point[]{new Point(0, 0), new Point(40, 60), new Point(world.length - 1, world[0].length - 1)}) {
+                OffscreenTarget culled = new OffscreenTarget();
+                OffscreenTarget unculled = new OffscreenTarget();
+                IsometricTERenderer renderer = new IsometricTERenderer(culled, 640, 480);
+                IsometricTERenderer reference = new UnculledIsometricRenderer(unculled, 640, 480, zoom);
+                renderer.initialize(world.length, world[0].length);
+                reference.initialize(world.length, world[0].length);
+                renderer.setZoomFactor(zoom);
+                reference.setZoomFactor(zoom);
+                renderer.renderFrame(world, center);
+                reference.renderFrame(world, center);
+                for (int x = 0; x < 640; x++) {
+                    for (int y = 0; y < 480; y++) {
+                        if (culled.getCanvas().getRGB(x, y) != unculled.getCanvas().getRGB(x, y)) {
+                            assertWithMessage("Pixel " + x + ", " + y + " at zoom " + zoom + " centered on " + center
+                                    + " differs").fail();
+                        }
+                    }
+                }
+            }
+        }
+
+        TETile[][] small = filledWorld(200, 200, generated.getTiles()[0][0]);
+        TETile[][] large = filledWorld(2000, 2000, generated.getTiles()[0][0]);
+        long[] pictures = new long[2];
+        for (int i = 0; i < 2; i++) {
+            TETile[][] tiles = i == 0 ? small : large;
+            CountingTarget target = new CountingTarget();
+            IsometricTERenderer renderer = new IsometricTERenderer(target, 1440, 752);
+            renderer.initialize(tiles.length, tiles[0].length);
+            renderer.renderFrame(tiles, new Point(100, 100));
+            pictures[i] = target.pictures;
+        }
+        assertWithMessage("Tiles drawn of a 200x200 world").that(pictures[0]).isAtMost(200L * 200 / 4);
+        assertWithMessage("A larger world should not draw more tiles").that(pictures[1]).isEqualTo(pictures[0]);
+    }
+
+    /**
+     * Frames copied from a static layer match frames drawn tile by tile while the player walks and animates,
+     * the isometric view zooms, and the world is edited and the layer invalidated.
+     */
+    @Test
+    void staticLayerMatchesDirectDrawing() {
+        for (boolean isometric : new boolean[]{false, true}) {
+            IslandTileSet tileSet = new IslandTileSet();
+            World world = new World(0, 75, 150, null, "rectangular", -1, -1, null, -1, tileSet);
+            world.switchViews(isometric);
+            TETile[][] tiles = world.getTiles();
+            OffscreenTarget layeredTarget = new OffscreenTarget();
+            OffscreenTarget directTarget = new OffscreenTarget();
+            TERenderer layered = isometric ? new IsometricTERenderer(layeredTarget, 640, 480) : new TERenderer(layeredTarget, 640, 480);
+            TERenderer direct = isometric ? new IsometricTERenderer(directTarget, 640, 480) : new TERenderer(directTarget, 640, 480);
+            layered.initialize(tiles.length, tiles[0].length);
+            direct.initialize(tiles.length, tiles[0].length);
+            layered.setStaticLayer(true);
+
+            Point start = world.getRandomRoomCoords();
+            Player player = isometric ? new IsometricPlayer(Direction.DOWN, tileSet) : new Player(Direction.DOWN, tileSet);
+            player.setPos(start, tiles[start.x][start.y]);
+            tiles[start.x][start.y] = player;
+            for (int frame = 0; frame < 48; frame++) {
+                if (frame % 4 == 0) {
+                    Direction[] walk = {Direction.LEFT, Direction.UP, Direction.RIGHT, Direction.DOWN};
+                    player.move(walk[(frame / 8) % walk.length], tiles);
+                }
+                if (isometric && frame == 20) {
+                    ((IsometricTERenderer) layered).setZoomFactor(1.27);
+                    ((IsometricTERenderer) direct).setZoomFactor(1.27);
+                }
+                if (frame == 32) {
+                    Point pos = player.getPos();
+                    tiles[pos.x + 1][pos.y] = tileSet.getTemporaryWall();
+                    layered.invalidateStaticLayer();
+                }
+                player.advance(50_000_000L);
+                player.reportDirtyCells(layered);
+                layered.renderFrame(tiles, player.getPos());
+                direct.renderFrame(tiles, player.getPos());
+
+                for (int x = 0; x < 640; x++) {
+                    for (int y = 0; y < 480; y++) {
+                        if (layeredTarget.getCanvas().getRGB(x, y) != directTarget.getCanvas().getRGB(x, y)) {
+                            assertWithMessage("Pixel " + x + ", " + y + " of frame " + frame + " differs, isometric: "
+                                    + isometric).fail();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A render thread that receives snapshots while the player walks, some merged before it picks them up,
+     * draws the same frame as rendering the final tiles directly, apart from the status in the top corner.
+     */
+    @Test
+    void renderThreadDrawsPublishedSnapshots() throws InterruptedException {
+        IslandTileSet tileSet = new IslandTileSet();
+        World world = new World(0, 75, 150, null, "rectangular", -1, -1, null, -1, tileSet);
+        TETile[][] tiles = world.getTiles();
+        OffscreenTarget threadTarget = new OffscreenTarget();
+        OffscreenTarget directTarget = new OffscreenTarget();
+        TERenderer threaded = new TERenderer(threadTarget, 640, 480);
+        TERenderer direct = new TERenderer(directTarget, 640, 480);
+        threaded.initialize(tiles.length, tiles[0].length);
+        direct.initialize(tiles.length, tiles[0].length);
+        threaded.setStaticLayer(true);
+
+        Point start = world.getRandomRoomCoords();
+        Player player = new Player(Direction.DOWN, tileSet);
+        player.setPos(start, tiles[start.x][start.y]);
+        tiles[start.x][start.y] = player;
+        RenderThread renderThread = new RenderThread(threaded, 60);
+        renderThread.publish(FrameSnapshot.full(0, threaded, tiles, player.getPos(), null, 20));
+
+        Direction[] walk = {Direction.LEFT, Direction.UP, Direction.RIGHT, Direction.DOWN, Direction.DOWN};
+        long tick = 0;
+        for (Direction dir : walk) {
+            for (int step = 0; step < 4; step++) {
+                if (step == 0) {
+                    player.move(dir, tiles);
+                }
+                Point pos = player.getPos();
+                tiles[pos.x][pos.y] = player.getPrevTile();
+                player.advance(50_000_000L);
+                pos = player.getPos();
+                tiles[pos.x][pos.y] = player;
+                renderThread.publish(FrameSnapshot.changes(++tick, threaded, tiles, List.of(player), pos, null, 20));
+            }
+            if (tick == 8) {
+                renderThread.start(); // The first two steps are merged into one snapshot
+            }
+        }
+
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (renderThread.getRenderedTick() != tick && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        renderThread.stop();
+        assertWithMessage("Last tick rendered").that(renderThread.getRenderedTick()).isEqualTo(tick);
+
+        direct.renderFrame(tiles, player.getPos());
+        for (int x = 0; x < 640; x++) {
+            for (int y = 40; y < 480; y++) {
+                if (threadTarget.getCanvas().getRGB(x, y) != directTarget.getCanvas().getRGB(x, y)) {
+                    assertWithMessage("Pixel " + x + ", " + y + " differs").fail();
+                }
+            }
+        }
+    }
+}
@@ -2,6 +2,8 @@ package test;
 
 import tileengine.TETile;
 
+import java.io.File;
+
 public class TestingHelpers {
 
     /**
@@ -125,4 +127,24 @@ public class TestingHelpers {
         }
         return numWalkableNeighbors;
     }
-}
\ No newline at end of file
+
+    /**
+     * Computes a checksum of everything that identifies a tile: its character, description and image
+     * file name. Two worlds with the same checksum render identically.
+     *
+     * @param world the 2D array representing the world
+     * @return the checksum of the world's tiles
+     */
+    static long checksum(TETile[][] world) {
+        long hash = 17;
+        for (TETile[] column : world) {
+            for (TETile tile : column) {
+                String image = tile.getFilePath() == null ? "" : new File(tile.getFilePath()).getName();
+                hash = 31 * hash + tile.character();
+                hash = 31 * hash + tile.getDescription().hashCode();
+                hash = 31 * hash + image.hashCode();
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,184 @@
+package test;
+
+import core.World;
+import core.WorldCache;
+import core.WorldParams;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tileengine.IslandTileSet;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+/**
+ * Checks that world generation produces exactly the same tiles for a seed as it did when the expected
+ * checksums were recorded, so that optimizations to the generator cannot silently change saved worlds.
+ */
+public class WorldDeterminismTests {
+    private static final int NUM_SEEDS = 300;
+
+    /**
+     * Generates a world for each of the first NUM_SEEDS seeds and combines their checksums.
+     */
+    static long combinedChecksum(int height, int width, String spread, String shape, int minRoomDim,
+                                 int maxRoomDim, String continuation, int continuePercentage) {
+        long combined = 0;
+        for (long seed = 0; seed < NUM_SEEDS; seed++) {
+            World world = new World(seed, height, width, spread, shape, minRoomDim, maxRoomDim,
+                    continuation, continuePercentage, new IslandTileSet());
+            combined = 31 * combined + TestingHelpers.checksum(world.getTiles());
+        }
+        return combined;
+    }
+
+    /**
+     * Default-sized worlds with every other setting chosen by the seed.
+     */
+    @Test
+    void defaultWorldsAreUnchanged() {
+        assertWithMessage("Default worlds changed")
+                .that(combinedChecksum(75, 150, null, null, -1, -1, null, -1))
+                .isEqualTo(-6692920937691721753L);
+    }
+
+    /**
+     * Worlds covering each shape, spread and continuation setting.
+     */
+    @Test
+    void customWorldsAreUnchanged() {
+        assertWithMessage("Packed circular worlds changed")
+                .that(combinedChecksum(75, 150, "packed", "circular", 5, 12, "straight", -1))
+                .isEqualTo(-7739355479000931857L);
+        assertWithMessage("Scattered cube worlds changed")
+                .that(combinedChecksum(75, 150, "scattered", "cube", 5, 12, "arbitrary", -1))
+                .isEqualTo(4363202689809165648L);
+        assertWithMessage("Large packed rectangular worlds changed")
+                .that(combinedChecksum(120, 200, "packed", "rectangular", 6, 10, "custom", 70))
+                .isEqualTo(-8212618204634554593L);
+        assertWithMessage("Small scattered circular worlds changed")
+                .that(combinedChecksum(60, 60, "scattered", "circular", -1, -1, "semi-straight", -1))
+                .isEqualTo(4655886590906944107L);
+    }
+
+    /**
+     * Worlds read back from the world cache, from memory and from disk, match freshly generated ones,
+     * down to the spawn positions they hand out.
+     */
+    @Test
+    void cachedWorldsMatchGeneratedWorlds(@TempDir Path directory) throws IOException {
+        for (long seed = 0; seed < 20; seed++) {
+            WorldParams params = new WorldParams(seed, 120, 200, null, null, -1, -1, null, -1);
+            World generated = params.createWorld(new IslandTileSet());
+            WorldCache cache = new WorldCache(directory, 1 << 20, 1 << 30);
+            cache.put(params, params.createWorld(new IslandTileSet()));
+
+            World fromMemory = cache.get(params, new IslandTileSet());
+            World fromDisk = new WorldCache(directory, 0, 1 << 30).get(params, new IslandTileSet());
+            for (World cached : new World[]{fromMemory, fromDisk}) {
+                assertWithMessage("Cached world differs for seed " + seed)
+                        .that(TestingHelpers.checksum(cached.getTiles()))
+                        .isEqualTo(TestingHelpers.checksum(generated.getTiles()));
+                assertWithMessage("Cached world spawns differently for seed " + seed)
+                        .that(cached.getRandomRoomCoords())
+                        .isEqualTo(params.createWorld(new IslandTileSet()).getRandomRoomCoords());
+            }
+        }
+
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                byte[] entry = Files.readAllBytes(file);
+                entry[entry.length / 2] ^= 1;
+                Files.write(file, entry);
+            }
+        }
+        WorldParams params = new WorldParams(0, 120, 200, null, null, -1, -1, null, -1);
+        assertWithMessage("Corrupt cached worlds should be discarded")
+                .that(new WorldCache(directory, 0, 1 << 30).get(params, new IslandTileSet()))
+                .isNull();
+    }
+
+    /**
+     * Failed cache writes leave no temp files behind, and stale temp files are removed with the cached worlds
+     * over the disk limit.
+     */
+    @Test
+    void cacheCleansUpTempFiles(@TempDir Path directory) throws IOException {
+        Path stale = Files.createFile(directory.resolve("leftover.tmp"));
+        Files.setLastModifiedTime(stale, FileTime.fromMillis(0));
+        Path fresh = Files.createFile(directory.resolve("writing.tmp"));
+        WorldParams params = new WorldParams(0, 60, 60, null, null, -1, -1, null, -1);
+        WorldCache cache = new WorldCache(directory, 1 << 20, 1 << 30);
+        cache.put(params, params.createWorld(new IslandTileSet()));
+        assertWithMessage("Stale temp file").that(Files.exists(stale)).isFalse();
+        assertWithMessage("Temp file still being written").that(Files.exists(fresh)).isTrue();
+        Files.delete(fresh);
+
+        // Block the move into place with a non-empty directory where the cached world goes
+        Path cached;
+        try (var files = Files.list(directory)) {
+            cached = files.filter(file -> file.toString().endsWith(".world")).findFirst().orElseThrow();
+        }
+        Files.delete(cached);
+        Files.createDirectories(cached.resolve("blocker"));
+        cache.put(params, params.createWorld(new IslandTileSet()));
+        try (var files = Files.list(directory)) {
+            assertWithMessage("Temp files after a failed write")
+                    .that(files.filter(file -> file.toString().endsWith(".tmp")).count())
+                    .isEqualTo(0L);
+        }
+    }
+
+    /**
+     * Worlds large enough to run their post-processing passes in parallel come out the same as with
+     * sequential passes.
+     */
+    @Test
+    void parallelPassesMatchSequentialPasses() {
+        try {
+            for (long seed = 0; seed < 4; seed++) {
+                World.setParallelPasses(false);
+                World sequential = new World(seed, 600, 600, null, null, -1, -1, null, -1, new IslandTileSet());
+                World.setParallelPasses(true);
+                World parallel = new World(seed, 600, 600, null, null, -1, -1, null, -1, new IslandTileSet());
+                assertWithMessage("Parallel passes changed the world for seed " + seed)
+                        .that(TestingHelpers.checksum(parallel.getTiles()))
+                        .isEqualTo(TestingHelpers.checksum(sequential.getTiles()));
+            }
+        } finally {
+            World.setParallelPasses(true);
+        }
+    }
+
+    /**
+     * Worlds large enough to place rooms and choose doors region by region in parallel come out the same
+     * with 1, 2 or 4 threads generating them.
+     */
+    @Test
+    void generationMatchesAcrossThreadCounts() throws Exception {
+        for (long seed = 0; seed < 4; seed++) {
+            String spread = seed % 2 == 0 ? "packed" : "scattered";
+            Long expected = null;
+            for (int threads : new int[]{1, 2, 4}) {
+                long worldSeed = seed;
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    World world = pool.submit(() -> new World(worldSeed, 600, 600, spread, null, -1, -1, null, -1, new IslandTileSet())).get();
+                    long checksum = TestingHelpers.checksum(world.getTiles());
+                    if (expected == null) {
+                        expected = checksum;
+                    }
+                    assertWithMessage("Generating seed " + seed + " with " + threads + " threads changed the world")
+                            .that(checksum)
+                            .isEqualTo(expected);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+}
@@ -1,10 +1,26 @@
 package test;
 
+import core.ChunkedWorld;
+import core.Direction;
+import core.GameEngine;
+import core.GameState;
 import core.Main;
+import core.SeedSearch;
+import core.World;
+import core.WorldStats;
+import core.WorldParams;
 import org.junit.jupiter.api.Test;
+import tileengine.IslandTileSet;
 import tileengine.TETile;
+import tileengine.TileGrid;
 
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Predicate;
 
 import static com.google.common.truth.Truth.assertWithMessage;
 
@@ -87,4 +103,140 @@ public class WorldGenerationTests {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks that the chunks around the spawn of an infinite world are connected to each other and
+     * encapsulated, and that a chunk is the same whether it is generated first or after being evicted.
+     */
+    @Test
+    void checkChunkedWorlds() {
+        Random rand = new Random(System.currentTimeMillis());
+        for (int i = 0; i < 50; i++) {
+            long seed = rand.nextLong();
+            WorldParams params = new WorldParams(seed, 0, 0, null, "infinite", -1, -1, null, -1);
+            ChunkedWorld chunkedWorld = new ChunkedWorld(params, new IslandTileSet());
+            TETile[][] world = chunkedWorld.getTiles();
+            int width = world.length;
+            int height = world[0].length;
+
+            UnionFind uf = TestingHelpers.getUnionFind(width, height, world);
+            int walkableGroup = TestingHelpers.getFirstWalkableGroup(world, uf);
+            for (int i1 = 0; i1 < width; i1++) {
+                for (int j = 0; j < height; j++) {
+                    if (world[i1][j].isWalkable()) {
+                        assertWithMessage("All walkable tiles should be connected across chunks! Seed: " + seed)
+                                .that(uf.find(i1 * height + j))
+                                .isEqualTo(walkableGroup);
+                        TestingHelpers.checkEncapsulation(world, i1, j, seed);
+                    }
+                }
+            }
+
+            TileGrid first = new ChunkedWorld(params, new IslandTileSet()).getChunk(3, -2);
+            for (int cx = 0; cx < 10; cx++) {
+                for (int cy = 0; cy < 10; cy++) {
+                    chunkedWorld.getChunk(cx, cy);
+                }
+            }
+            TileGrid regenerated = chunkedWorld.getChunk(3, -2);
+            for (int x = 0; x < ChunkedWorld.CHUNK_SIZE; x++) {
+                for (int y = 0; y < ChunkedWorld.CHUNK_SIZE; y++) {
+                    assertWithMessage("Chunks should not depend on load order! Seed: " + seed)
+                            .that(regenerated.kind(x, y) == first.kind(x, y) && regenerated.variant(x, y) == first.variant(x, y))
+                            .isTrue();
+                }
+            }
+        }
+    }
+
+    /**
+     * Seed searches return the first matching seeds, all of which meet the constraints, whatever the
+     * number of threads.
+     */
+    @Test
+    void seedSearchFindsFirstMatches() {
+        Predicate<WorldStats> constraint = SeedSearch.parseConstraint("rooms>=35")
+                .and(SeedSearch.parseConstraint("spread=packed"));
+        WorldParams params = WorldParams.fromString("0,75,150,null,null,-1,-1,null,-1");
+        List<WorldStats> single = new SeedSearch(params, 1).search(0, 200, 5, constraint).matches();
+        List<WorldStats> several = new SeedSearch(params, 3).search(0, 200, 5, constraint).matches();
+
+        assertWithMessage("The search should find 5 matches").that(single.size()).isEqualTo(5);
+        assertWithMessage("Thread count should not change the matches").that(several).isEqualTo(single);
+        for (WorldStats stats : single) {
+            assertWithMessage("Seed " + stats.seed() + " should meet the constraints")
+                    .that(stats.rooms() >= 35 && stats.spread().equals("packed"))
+                    .isTrue();
+        }
+    }
+
+    /**
+     * Saves from before worlds were generated from RandomStreams are rejected, and a player restored onto a
+     * tile that can't be walked on, as their positions would be, starts in a room instead.
+     */
+    @Test
+    void restoresPlayersOntoWalkableTiles() {
+        assertWithMessage("Old save").that(GameState.isCurrentVersion("n123sppp;false,10,20,DOWN")).isFalse();
+        assertWithMessage("Save from before hallways were carved per tile")
+                .that(GameState.isCurrentVersion("v2;n123sppp;false,10,20,DOWN")).isFalse();
+        assertWithMessage("Current save").that(GameState.isCurrentVersion("v3;n123sppp;false,10,20,DOWN")).isTrue();
+
+        GameEngine engine = new GameEngine(new WorldParams(123, 75, 150, null, null, -1, -1, null, -1));
+        engine.initializeGameBoard(new Point(0, 0), false, Direction.DOWN);
+        String[] state = engine.toString().split(",");
+        TETile tile = engine.getTiles()[Integer.parseInt(state[1])][Integer.parseInt(state[2])];
+        assertWithMessage("Tile the player is restored onto").that(tile.isWalkable()).isTrue();
+        assertWithMessage("Player moved off the edge of the world").that(state[1] + "," + state[2]).isNotEqualTo("0,0");
+    }
+
+    /**
+     * Returns how many bytes the given stage of a world's generation allocated.
+     */
+    private static long allocatedBytes(World world, String stage) {
+        return world.getGenerationReport().getStages().stream()
+                .filter(result -> result.name().equals(stage))
+                .findFirst().orElseThrow().allocatedBytes();
+    }
+
+    /**
+     * Each stage reports what its world allocated, both on the generating thread and on the ForkJoinPool
+     * workers of its parallel passes, but not what worlds generated at the same time allocated.
+     */
+    @Test
+    void reportsAllocationOfEachWorldOnly() throws Exception {
+        int size = 600; // Large enough for the passes to run in parallel
+        World.setParallelPasses(false);
+        World sequential;
+        try {
+            sequential = new World(5, size, size, null, null, -1, -1, null, -1, new IslandTileSet());
+        } finally {
+            World.setParallelPasses(true);
+        }
+        long expectedRooms = allocatedBytes(sequential, "setUpRooms");
+        long expectedTotal = sequential.getGenerationReport().getTotalAllocatedBytes();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Alone in the pool, most rooms are placed by other workers than the generating thread
+            World alone = pool.submit(() -> new World(5, size, size, null, null, -1, -1, null, -1, new IslandTileSet())).get();
+            assertWithMessage("Bytes allocated initializing the tiles").that(allocatedBytes(alone, "initializeTiles"))
+                    .isAtLeast(4L * size * size);
+            assertWithMessage("Bytes allocated placing rooms in parallel").that(allocatedBytes(alone, "setUpRooms"))
+                    .isAtLeast(expectedRooms / 2);
+            assertWithMessage("Bytes allocated placing rooms in parallel").that(allocatedBytes(alone, "setUpRooms"))
+                    .isAtMost(expectedRooms * 3 / 2);
+
+            List<ForkJoinTask<World>> worlds = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                worlds.add(pool.submit(() -> new World(5, size, size, null, null, -1, -1, null, -1, new IslandTileSet())));
+            }
+            for (ForkJoinTask<World> task : worlds) {
+                long allocated = task.get().getGenerationReport().getTotalAllocatedBytes();
+                assertWithMessage("Bytes allocated generating alongside other worlds").that(allocated).isAtLeast(expectedTotal / 2);
+                assertWithMessage("Bytes allocated generating alongside other worlds").that(allocated).isAtMost(expectedTotal * 3 / 2);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -1,11 +1,9 @@
 package tileengine;
 
-import core.AnimatedTETile;
 import core.Direction;
 
 import java.awt.*;
 import java.io.File;
-import java.util.Random;
 
 /* @Source. TileSets taken from Itch.io, specifically:
 * "https://merchant-shade.itch.io/16x16-puny-world.
@@ -19,109 +17,146 @@ public class IslandTileSet {
     private static final String ISLAND_TILESET_ISO = new File("assets/tilesIso").getAbsolutePath() + "/";
     private String base_path = ISLAND_TILESET;
 
+    /* Variants of TileGrid.FLOOR */
+    public static final byte FLOOR_CENTER = 0;
+    public static final byte FLOOR_TOP_LEFT_CORNER = 1;
+    public static final byte FLOOR_LEFT_MIDDLE_EDGE = 2;
+    public static final byte FLOOR_BOTTOM_LEFT_CORNER = 3;
+    public static final byte FLOOR_MIDDLE_BOTTOM_EDGE = 4;
+    public static final byte FLOOR_RIGHT_BOTTOM_CORNER = 5;
+    public static final byte FLOOR_RIGHT_MIDDLE_EDGE = 6;
+    public static final byte FLOOR_RIGHT_TOP_CORNER = 7;
+    public static final byte FLOOR_TOP_MIDDLE_EDGE = 8;
+
+    /* Variants of TileGrid.HALLWAY. Bridges are 1 + the ordinal of the direction they face. */
+    public static final byte HALLWAY_PATH = 0;
+
+    /* TileGrid.NOTHING and TileGrid.WALL have image variants 1 through 4. */
+    public static final int NUM_IMAGE_VARIANTS = 4;
+
+    /* Interned tiles, indexed by [view][kind][variant]. TETiles are immutable, so every world shares these. */
+    private static final TETile[][][] TILES = {createTiles(ISLAND_TILESET), createTiles(ISLAND_TILESET_ISO)};
+
     private boolean isometric = false;
 
+    /** Creates one instance of every tile drawn from the images under the given directory.
+     */
+    private static TETile[][] createTiles(String path) {
+        TETile[][] tiles = new TETile[TileGrid.DOOR + 1][];
+        Color floorColor = new Color(128, 192, 128);
+
+        tiles[TileGrid.UNUSED] = new TETile[]{
+                new TETile('U', Color.black, Color.black, "Water (Nothing)", path + "background.png", 0)};
+
+        tiles[TileGrid.NOTHING] = new TETile[NUM_IMAGE_VARIANTS + 1];
+        tiles[TileGrid.WALL] = new TETile[NUM_IMAGE_VARIANTS + 1];
+        for (int k = 1; k <= NUM_IMAGE_VARIANTS; k++) {
+            tiles[TileGrid.NOTHING][k] = new TETile(' ', Color.black, Color.black, "Water (Nothing)", path + "nothing" + k + ".png", 1);
+            tiles[TileGrid.WALL][k] = new TETile('#', Color.darkGray, Color.black, "Nature Wall", path + "wall" + k + ".png", 4);
+        }
+
+        String[] floorImages = {"floor_center.png", "floor_top_left_corner.png", "floor_left_middle_edge.png",
+                "floor_bottom_left_corner.png", "floor_middle_bottom_edge.png", "floor_right_bottom_corner.png",
+                "floor_right_middle_edge.png", "floor_right_top_corner.png", "floor_top_middle_edge.png"};
+        tiles[TileGrid.FLOOR] = new TETile[floorImages.length];
+        for (int v = 0; v < floorImages.length; v++) {
+            tiles[TileGrid.FLOOR][v] = new TETile('.', floorColor, Color.black, "Island Floor", path + floorImages[v], 2);
+        }
+
+        String desc = "Island Entryway";
+        tiles[TileGrid.HALLWAY] = new TETile[Direction.values().length + 1];
+        tiles[TileGrid.HALLWAY][HALLWAY_PATH] = new TETile('≈', Color.blue, Color.black, "Sand Path", path + "hallway.png", 3);
+        tiles[TileGrid.HALLWAY][getBridgeVariant(Direction.LEFT)] = new TETile('<', Color.blue, Color.black, desc, path + "hallDoorLeft.png", 3);
+        tiles[TileGrid.HALLWAY][getBridgeVariant(Direction.RIGHT)] = new TETile('>', Color.blue, Color.black, desc, path + "hallDoorRight.png", 3);
+        tiles[TileGrid.HALLWAY][getBridgeVariant(Direction.DOWN)] = new TETile('_', Color.blue, Color.black, desc, path + "hallDoorDown.png", 3);
+        tiles[TileGrid.HALLWAY][getBridgeVariant(Direction.UP)] = new TETile('^', Color.blue, Color.black, desc, path + "hallDoorUp.png", 3);
+
+        tiles[TileGrid.DOOR] = new TETile[]{
+                new TETile('≈', Color.blue, Color.black, "Sand Path", path + "hallway.png", 8)};
+        return tiles;
+    }
+
     /* TEMPS */
     public TETile getTemporaryDoorway() {
-        return new TETile('≈', Color.blue, Color.black, "Sand Path", base_path + "hallway.png", 8);
+        return getTile(TileGrid.DOOR, (byte) 0);
     }
 
     public TETile getTemporaryHallway() {
-        return new TETile('≈', Color.blue, Color.black, "Sand Path", base_path + "hallway.png", 3);
+        return getTile(TileGrid.HALLWAY, HALLWAY_PATH);
     }
 
     public TETile getTemporaryWall() {
-        return new TETile('#', Color.darkGray, Color.black, "Nature Wall", base_path + "wall1.png", 4);
+        return getWall(1);
     }
 
     /* Floors */
     public TETile getFloorTopLeftCorner() {
-        return new TETile('.', new Color(128, 192, 128), Color.black, "Island Floor", base_path + "floor_top_left_corner.png", 2);
+        return getTile(TileGrid.FLOOR, FLOOR_TOP_LEFT_CORNER);
     }
 
     public TETile getFloorLeftMiddleEdge() {
-        return new TETile('.', new Color(128, 192, 128), Color.black, "Island Floor", base_path + "floor_left_middle_edge.png", 2);
+        return getTile(TileGrid.FLOOR, FLOOR_LEFT_MIDDLE_EDGE);
     }
 
-    
     public TETile getFloorBottomLeftCorner() {
-        return new TETile('.', new Color(128, 192, 128), Color.black, "Island Floor", base_path + "floor_bottom_left_corner.png", 2);
+        return getTile(TileGrid.FLOOR, FLOOR_BOTTOM_LEFT_CORNER);
     }
 
-    
     public TETile getFloorMiddleBottomEdge() {
-        return new TETile('.', new Color(128, 192, 128), Color.black, "Island Floor", base_path + "floor_middle_bottom_edge.png", 2);
+        return getTile(TileGrid.FLOOR, FLOOR_MIDDLE_BOTTOM_EDGE);
     }
 
-    
     public TETile getFloorRightBottomCorner() {
-        return new TETile('.', new Color(128, 192, 128), Color.black, "Island Floor", base_path + "floor_right_bottom_corner.png", 2);
+        return getTile(TileGrid.FLOOR, FLOOR_RIGHT_BOTTOM_CORNER);
     }
 
-    
     public TETile getFloorRightMiddleEdge() {
-        return new TETile('.', new Color(128, 192, 128), Color.black, "Island Floor", base_path + "floor_right_middle_edge.png", 2);
+        return getTile(TileGrid.FLOOR, FLOOR_RIGHT_MIDDLE_EDGE);
     }
 
-    
     public TETile getFloorRightTopCorner() {
-        return new TETile('.', new Color(128, 192, 128), Color.black, "Island Floor", base_path + "floor_right_top_corner.png", 2);
+        return getTile(TileGrid.FLOOR, FLOOR_RIGHT_TOP_CORNER);
     }
 
-    
     public TETile getFloorTopMiddleEdge() {
-        return new TETile('.', new Color(128, 192, 128), Color.black, "Island Floor", base_path + "floor_top_middle_edge.png", 2);
+        return getTile(TileGrid.FLOOR, FLOOR_TOP_MIDDLE_EDGE);
     }
 
-    
     public TETile getFloorCenter() {
-        return new TETile('.', new Color(128, 192, 128), Color.black, "Island Floor", base_path + "floor_center.png", 2);
+        return getTile(TileGrid.FLOOR, FLOOR_CENTER);
     }
+
     public TETile getFloor() {
         return getFloorCenter(); // Generic Floor
     }
 
     /* Walls */
-    public TETile getWall(Random rand) {
-        int k = rand.nextInt(1, 5);
-        return new TETile('#', Color.darkGray, Color.black, "Nature Wall", base_path + "wall" + String.valueOf(k) + ".png", 4);
+    public TETile getWall(int k) {
+        return getTile(TileGrid.WALL, (byte) k);
     }
 
     /* Nothing Tiles */
     public TETile getUnused() {
-        return new TETile('U', Color.black, Color.black, "Water (Nothing)", base_path + "background.png", 0);
+        return getTile(TileGrid.UNUSED, (byte) 0);
     }
-    
-    public TETile getNothing(Random rand) {
-        int k = rand.nextInt(1, 5);
-        return new TETile(' ', Color.black, Color.black, "Water (Nothing)", base_path + "nothing" + String.valueOf(k) + ".png", 1);
+
+    public TETile getNothing(int k) {
+        return getTile(TileGrid.NOTHING, (byte) k);
     }
 
     /* Bridges and Staircases */
     public TETile getBridge(Direction dir) {
-        String desc;
-        desc = "Island Entryway";
-        if (dir.equals(Direction.LEFT)) {
-            return new TETile('<', Color.blue, Color.black, desc, base_path + "hallDoorLeft.png", 3);
-        } else if (dir.equals(Direction.RIGHT)) {
-            return new TETile('>', Color.blue, Color.black, desc, base_path + "hallDoorRight.png", 3);
-        } else if (dir.equals(Direction.DOWN)) {
-            return new TETile('_', Color.blue, Color.black, desc, base_path + "hallDoorDown.png", 3);
-        } else {
-            return new TETile('^', Color.blue, Color.black, desc, base_path + "hallDoorUp.png", 3);
-        }
+        return getTile(TileGrid.HALLWAY, getBridgeVariant(dir));
     }
 
     /* Pathway Tiles */
 
     public TETile getDoorwayPath(int[] dir) {
-        return new TETile('≈', Color.blue, Color.black, "Sand Path", base_path + "hallway.png", 8);
+        return getTile(TileGrid.DOOR, (byte) 0);
     }
 
-
-
     /* Switch to Isometric TileSet */
-    public void switchTileImages(boolean isometric, TETile[][] worldTiles) {
+    public void switchTileImages(boolean isometric) {
         this.isometric = isometric;
 
         if (isometric) {
@@ -129,32 +164,35 @@ public class IslandTileSet {
         } else {
             this.base_path = ISLAND_TILESET;
         }
+    }
 
-        for (int i = 0; i < worldTiles.length; i++) {
-            for (int j = 0; j < worldTiles[0].length; j++) {
-                worldTiles[i][j] = updateTileImage(worldTiles[i][j]);
+    /** Returns the bridge variant for a bridge facing the given direction. */
+    public static byte getBridgeVariant(Direction dir) {
+        return (byte) (1 + dir.ordinal());
+    }
+
+    /** Returns the shared TETile for a TileGrid cell in the current view.
+     */
+    public TETile getTile(byte kind, byte variant) {
+        return TILES[isometric ? 1 : 0][kind][variant];
+    }
+
+    /** Builds a TETile view of a TileGrid in the current view. Only references to the shared tiles are copied.
+     */
+    public TETile[][] toTiles(TileGrid grid) {
+        TETile[][] tiles = new TETile[grid.getWidth()][grid.getHeight()];
+        for (int x = 0; x < grid.getWidth(); x++) {
+            for (int y = 0; y < grid.getHeight(); y++) {
+                tiles[x][y] = getTile(grid.kind(x, y), grid.variant(x, y));
             }
         }
+        return tiles;
     }
 
     /* Player Tiles handle their own images. Returns the path to the player SpriteSheet */
     public String getPlayerSpriteSheetPath() {
         return base_path + "player.png";
     }
-
-    /** Replace image of a TETile. Used when switching to/from isometric rendering.
-     */
-    private TETile updateTileImage(TETile tile) {
-        if (tile instanceof AnimatedTETile) {
-            tile = ((AnimatedTETile) tile).getPrevTile();
-        }
-        String path = tile.getFilePath();
-        if (path != null) {
-            String[] directories = path.split(System.getProperty("file.separator"));
-            tile.changeFilePath(base_path + directories[directories.length - 1]);
-        }
-        return tile;
-    }
 }
 
 
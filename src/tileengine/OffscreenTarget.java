@@ -0,0 +1,161 @@
+package tileengine;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws into an offscreen image instead of a window, so frames can be rendered with java.awt.headless=true,
+ * e.g. to benchmark the renderers. Images drawn by path are loaded the same way StdDraw loads them, so drawing
+ * costs about what it does on screen. No keys are ever pressed, and the mouse stays wherever it was last moved.
+ */
+public class OffscreenTarget implements RenderTarget {
+    private BufferedImage canvas;
+    private Graphics2D g;
+    private Color penColor = Color.BLACK;
+    private double mouseX;
+    private double mouseY;
+    private long frames;
+
+    @Override
+    public void setUp(int width, int height) {
+        if (g != null) {
+            g.dispose();
+        }
+        canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        g = canvas.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        clear(Color.BLACK);
+    }
+
+    /**
+     * Returns the image drawn into.
+     *
+     * @return the canvas
+     */
+    public BufferedImage getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * Returns how many frames have been shown.
+     *
+     * @return the number of calls to show()
+     */
+    public long getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * Moves the mouse, in canvas coordinates.
+     *
+     * @param x the mouse's x-coordinate
+     * @param y the mouse's y-coordinate
+     */
+    public void setMouse(double x, double y) {
+        this.mouseX = x;
+        this.mouseY = y;
+    }
+
+    /**
+     * Restricts drawing to a rectangle of the canvas until unclip() is called.
+     *
+     * @param x the rectangle's left edge
+     * @param y the rectangle's bottom edge
+     * @param width the rectangle's width
+     * @param height the rectangle's height
+     */
+    public void clip(int x, int y, int width, int height) {
+        g.setClip(x, canvas.getHeight() - (y + height), width, height);
+    }
+
+    /**
+     * Lets drawing cover the whole canvas again.
+     */
+    public void unclip() {
+        g.setClip(null);
+    }
+
+    @Override
+    public void clear(Color color) {
+        g.setColor(color);
+        g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        g.setColor(penColor);
+    }
+
+    @Override
+    public void picture(double x, double y, String filepath) {
+        ImageIcon icon = new ImageIcon(filepath);
+        if (icon.getImageLoadStatus() != MediaTracker.COMPLETE) {
+            throw new IllegalArgumentException("could not read image: '" + filepath + "'");
+        }
+        Image image = icon.getImage();
+        int width = image.getWidth(null);
+        int height = image.getHeight(null);
+        g.drawImage(image, (int) Math.round(x - width / 2.0), (int) Math.round(flip(y) - height / 2.0), null);
+    }
+
+    @Override
+    public void picture(double x, double y, BufferedImage image) {
+        g.drawImage(image, (int) Math.round(x - image.getWidth() / 2.0),
+                (int) Math.round(flip(y) - image.getHeight() / 2.0), null);
+    }
+
+    @Override
+    public void setPenColor(Color color) {
+        penColor = color;
+        g.setColor(color);
+    }
+
+    @Override
+    public void setFont(Font font) {
+        g.setFont(font);
+    }
+
+    @Override
+    public void filledSquare(double x, double y, double halfLength) {
+        filledRectangle(x, y, halfLength, halfLength);
+    }
+
+    @Override
+    public void filledRectangle(double x, double y, double halfWidth, double halfHeight) {
+        g.fillRect((int) Math.round(x - halfWidth), (int) Math.round(flip(y) - halfHeight),
+                (int) Math.round(2 * halfWidth), (int) Math.round(2 * halfHeight));
+    }
+
+    @Override
+    public void text(double x, double y, String text) {
+        FontMetrics metrics = g.getFontMetrics();
+        g.drawString(text, (float) (x - metrics.stringWidth(text) / 2.0), (float) (flip(y) + metrics.getDescent()));
+    }
+
+    @Override
+    public void textLeft(double x, double y, String text) {
+        FontMetrics metrics = g.getFontMetrics();
+        g.drawString(text, (float) x, (float) (flip(y) + metrics.getDescent()));
+    }
+
+    @Override
+    public void show() {
+        frames++;
+    }
+
+    @Override
+    public boolean isKeyPressed(int keycode) {
+        return false;
+    }
+
+    @Override
+    public double mouseX() {
+        return mouseX;
+    }
+
+    @Override
+    public double mouseY() {
+        return mouseY;
+    }
+
+    private double flip(double y) {
+        return canvas.getHeight() - y;
+    }
+}
@@ -0,0 +1,67 @@
+package tileengine;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Where the renderers draw to and read input from. Coordinates are canvas pixels with the origin in the
+ * bottom-left corner, as in StdDraw, and pictures are centered on the given point.
+ * <p>
+ * The game draws to StdDrawTarget's window; OffscreenTarget draws into an image instead, so that frames can
+ * be rendered and timed without a display.
+ */
+public interface RenderTarget {
+
+    /**
+     * Prepares a canvas of the given size and clears it.
+     *
+     * @param width the canvas width in pixels
+     * @param height the canvas height in pixels
+     */
+    void setUp(int width, int height);
+
+    void clear(Color color);
+
+    /**
+     * Draws the image at the given path centered on (x, y).
+     *
+     * @throws IllegalArgumentException if the image cannot be read
+     */
+    void picture(double x, double y, String filepath);
+
+    /**
+     * Draws an image already in memory centered on (x, y).
+     *
+     * @throws IllegalArgumentException if this target cannot draw images from memory
+     */
+    void picture(double x, double y, BufferedImage image);
+
+    void setPenColor(Color color);
+
+    void setFont(Font font);
+
+    void filledSquare(double x, double y, double halfLength);
+
+    void filledRectangle(double x, double y, double halfWidth, double halfHeight);
+
+    /**
+     * Draws text centered on (x, y).
+     */
+    void text(double x, double y, String text);
+
+    /**
+     * Draws text left-aligned at x and vertically centered on y.
+     */
+    void textLeft(double x, double y, String text);
+
+    /**
+     * Shows everything drawn since the last call.
+     */
+    void show();
+
+    boolean isKeyPressed(int keycode);
+
+    double mouseX();
+
+    double mouseY();
+}
@@ -0,0 +1,121 @@
+package tileengine;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A picture of the world drawn once and copied to the canvas every frame, instead of drawing every visible
+ * tile again. The picture is split into square parts of PART_SIZE pixels, each drawn the first time it comes
+ * into view, so worlds of any size can be layered.
+ * <p>
+ * Cells whose tiles change, such as the cells an animated tile moves between, must be marked dirty: they are
+ * redrawn in the parts already drawn before the next frame is copied. Any other change to the world's tiles
+ * must invalidate the layer. Drawing a different array of tiles, e.g. after ChunkedWorld moves its window,
+ * invalidates it too.
+ * <p>
+ * Parts are kept per projection key, i.e. per view and zoom, up to MAX_PARTS in all, dropping the least
+ * recently copied first.
+ */
+public class StaticLayer {
+    private static final int PART_SIZE = 512;
+    private static final int MAX_PARTS = 32;
+
+    private final TERenderer renderer;
+    private final Map<Part, OffscreenTarget> parts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Part, OffscreenTarget> eldest) {
+            return size() > MAX_PARTS;
+        }
+    };
+    private final List<Point> dirtyCells = new ArrayList<>();
+    private TETile[][] world;
+
+    /**
+     * One part of the picture, covering [i, i + 1) x [j, j + 1) times PART_SIZE of the tile positions
+     * without offsets, for one projection key.
+     */
+    private record Part(int key, int i, int j) {
+    }
+
+    StaticLayer(TERenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * Marks a cell to be redrawn before the next frame.
+     */
+    void markDirty(int x, int y) {
+        dirtyCells.add(new Point(x, y));
+    }
+
+    /**
+     * Drops every part, so they are drawn again from the world's tiles as they come into view.
+     */
+    void invalidate() {
+        parts.clear();
+        dirtyCells.clear();
+    }
+
+    /**
+     * Copies the parts of the picture covering a canvas to the target, drawing the parts not drawn yet and
+     * redrawing the dirty cells first.
+     *
+     * @throws IllegalArgumentException if the target cannot draw images from memory
+     */
+    void draw(TETile[][] world, RenderTarget target, int xOffset, int yOffset, int width, int height) {
+        if (world != this.world) {
+            invalidate();
+            this.world = world;
+        }
+        int key = renderer.projectionKey();
+        redrawDirtyCells(key);
+
+        for (int i = Math.floorDiv(-xOffset, PART_SIZE); i <= Math.floorDiv(width - 1 - xOffset, PART_SIZE); i++) {
+            for (int j = Math.floorDiv(-yOffset, PART_SIZE); j <= Math.floorDiv(height - 1 - yOffset, PART_SIZE); j++) {
+                OffscreenTarget part = parts.computeIfAbsent(new Part(key, i, j), this::drawPart);
+                target.picture(i * PART_SIZE + PART_SIZE / 2 + xOffset, j * PART_SIZE + PART_SIZE / 2 + yOffset,
+                        part.getCanvas());
+            }
+        }
+    }
+
+    private OffscreenTarget drawPart(Part part) {
+        OffscreenTarget target = new OffscreenTarget();
+        target.setUp(PART_SIZE, PART_SIZE);
+        renderer.drawRegion(world, target, -part.i() * PART_SIZE, -part.j() * PART_SIZE, 0, 0, PART_SIZE, PART_SIZE);
+        return target;
+    }
+
+    /**
+     * Redraws the bounds of each dirty cell in the parts of the current projection that were drawn. Parts of
+     * other projections would have to be drawn with their own projection, so they are dropped instead.
+     */
+    private void redrawDirtyCells(int key) {
+        if (dirtyCells.isEmpty()) {
+            return;
+        }
+        parts.keySet().removeIf(part -> part.key() != key);
+        for (Point cell : dirtyCells) {
+            Rectangle bounds = renderer.cellBounds(cell.x, cell.y);
+            for (int i = Math.floorDiv(bounds.x, PART_SIZE); i <= Math.floorDiv(bounds.x + bounds.width - 1, PART_SIZE); i++) {
+                for (int j = Math.floorDiv(bounds.y, PART_SIZE); j <= Math.floorDiv(bounds.y + bounds.height - 1, PART_SIZE); j++) {
+                    OffscreenTarget part = parts.get(new Part(key, i, j));
+                    if (part == null) {
+                        continue; // Drawn from the world's current tiles when it comes into view
+                    }
+                    int left = bounds.x - i * PART_SIZE;
+                    int bottom = bounds.y - j * PART_SIZE;
+                    part.clip(left, bottom, bounds.width, bounds.height);
+                    part.clear(Color.BLACK);
+                    renderer.drawRegion(world, part, -i * PART_SIZE, -j * PART_SIZE,
+                            left, bottom, left + bounds.width, bottom + bounds.height);
+                    part.unclip();
+                }
+            }
+        }
+        dirtyCells.clear();
+    }
+}
@@ -0,0 +1,130 @@
+package tileengine;
+
+import edu.princeton.cs.algs4.StdDraw;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.Field;
+
+/**
+ * Draws to the StdDraw window, with the x and y scales set to canvas pixels.
+ * <p>
+ * StdDraw only draws pictures by filename, so images already in memory are drawn straight onto StdDraw's
+ * offscreen buffer, which is found by reflection. They appear on the next show(), like everything else drawn
+ * while double buffering.
+ */
+public class StdDrawTarget implements RenderTarget {
+    private static final StdDrawTarget INSTANCE = new StdDrawTarget();
+    private static final Field OFFSCREEN = stdDrawField("offscreen");
+    private static final Field HEIGHT = stdDrawField("height");
+
+    private StdDrawTarget() {
+    }
+
+    /**
+     * Returns the target for StdDraw's single window.
+     *
+     * @return the StdDraw target
+     */
+    public static StdDrawTarget get() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void setUp(int width, int height) {
+        StdDraw.setCanvasSize(width, height);
+        StdDraw.setXscale(0, width);
+        StdDraw.setYscale(0, height);
+        StdDraw.clear(new Color(0, 0, 0));
+        StdDraw.enableDoubleBuffering();
+    }
+
+    @Override
+    public void clear(Color color) {
+        StdDraw.clear(color);
+    }
+
+    @Override
+    public void picture(double x, double y, String filepath) {
+        StdDraw.picture(x, y, filepath);
+    }
+
+    @Override
+    public void picture(double x, double y, BufferedImage image) {
+        if (OFFSCREEN == null || HEIGHT == null) {
+            throw new IllegalArgumentException("StdDraw cannot draw images from memory");
+        }
+        try {
+            Graphics2D offscreen = (Graphics2D) OFFSCREEN.get(null);
+            int height = HEIGHT.getInt(null);
+            offscreen.drawImage(image, (int) Math.round(x - image.getWidth() / 2.0),
+                    (int) Math.round(height - y - image.getHeight() / 2.0), null);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("StdDraw cannot draw images from memory", e);
+        }
+    }
+
+    @Override
+    public void setPenColor(Color color) {
+        StdDraw.setPenColor(color);
+    }
+
+    @Override
+    public void setFont(Font font) {
+        StdDraw.setFont(font);
+    }
+
+    @Override
+    public void filledSquare(double x, double y, double halfLength) {
+        StdDraw.filledSquare(x, y, halfLength);
+    }
+
+    @Override
+    public void filledRectangle(double x, double y, double halfWidth, double halfHeight) {
+        StdDraw.filledRectangle(x, y, halfWidth, halfHeight);
+    }
+
+    @Override
+    public void text(double x, double y, String text) {
+        StdDraw.text(x, y, text);
+    }
+
+    @Override
+    public void textLeft(double x, double y, String text) {
+        StdDraw.textLeft(x, y, text);
+    }
+
+    @Override
+    public void show() {
+        StdDraw.show();
+    }
+
+    @Override
+    public boolean isKeyPressed(int keycode) {
+        return StdDraw.isKeyPressed(keycode);
+    }
+
+    @Override
+    public double mouseX() {
+        return StdDraw.mouseX();
+    }
+
+    @Override
+    public double mouseY() {
+        return StdDraw.mouseY();
+    }
+
+    /**
+     * Returns one of StdDraw's private static fields, made accessible, or null if this version of StdDraw
+     * does not have it.
+     */
+    private static Field stdDrawField(String name) {
+        try {
+            Field field = StdDraw.class.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -1,18 +1,19 @@
 package tileengine;
 
-import edu.princeton.cs.algs4.StdDraw;
-
 import java.awt.*;
 import java.awt.event.KeyEvent;
 
 public class TERenderer {
     private static final int TILE_SIZE = 16;
+    private static final int CULL_MARGIN = 2; // Tiles drawn beyond each edge of the canvas
+    private static final int OVERLAY_MARGIN = 64; // Pixels beyond each edge of the canvas overlay tiles can reach from
 
     protected int tileWidth = TILE_SIZE;
     protected int tileHeight = TILE_SIZE;
 
-    protected final int CANVAS_WIDTH = 1440;
-    protected final int CANVAS_HEIGHT = 752;
+    protected final int CANVAS_WIDTH;
+    protected final int CANVAS_HEIGHT;
+    protected final RenderTarget target;
 
     protected int x_Offset;
     protected int y_Offset;
@@ -22,17 +23,71 @@ public class TERenderer {
 
     protected boolean centered = true;
 
+    private StaticLayer staticLayer;
+    private TileOverlay overlay;
+    private String status;
+
+    /**
+     * Constructs a renderer that draws to the 1440x752 StdDraw window.
+     */
+    public TERenderer() {
+        this(StdDrawTarget.get(), 1440, 752);
+    }
+
+    /**
+     * Constructs a renderer that draws to the given target, e.g. an OffscreenTarget to render without a display.
+     *
+     * @param target where to draw and read input from
+     * @param canvasWidth the width of the canvas in pixels
+     * @param canvasHeight the height of the canvas in pixels
+     */
+    public TERenderer(RenderTarget target, int canvasWidth, int canvasHeight) {
+        this.target = target;
+        this.CANVAS_WIDTH = canvasWidth;
+        this.CANVAS_HEIGHT = canvasHeight;
+    }
+
     public void initialize(int w, int h) {
         this.numXTiles = w;
         this.numYTiles = h;
 
-        StdDraw.setCanvasSize(CANVAS_WIDTH, CANVAS_HEIGHT);
+        target.setUp(CANVAS_WIDTH, CANVAS_HEIGHT);
         resetFont();
-        StdDraw.setXscale(0, CANVAS_WIDTH);
-        StdDraw.setYscale(0, CANVAS_HEIGHT);
+        invalidateStaticLayer();
+    }
+
+    /**
+     * Turns drawing through a StaticLayer on or off. With the layer on, the world is drawn once per view and
+     * zoom and copied to the canvas every frame; callers must then report every cell they change with
+     * markDirty, or invalidate the layer. Layering is off by default, and turns itself off if the target
+     * cannot draw images from memory.
+     *
+     * @param enabled whether to draw through a static layer
+     */
+    public void setStaticLayer(boolean enabled) {
+        staticLayer = enabled ? new StaticLayer(this) : null;
+    }
+
+    /**
+     * Marks a cell whose tile changed, so that the static layer redraws it before the next frame. Does
+     * nothing without a static layer or for cells outside the world.
+     *
+     * @param x the cell's x-coordinate
+     * @param y the cell's y-coordinate
+     */
+    public void markDirty(int x, int y) {
+        if (staticLayer != null && x >= 0 && x < numXTiles && y >= 0 && y < numYTiles) {
+            staticLayer.markDirty(x, y);
+        }
+    }
 
-        StdDraw.clear(new Color(0, 0, 0));
-        StdDraw.enableDoubleBuffering();
+    /**
+     * Makes the static layer draw the world again from its tiles, after changes not reported to markDirty.
+     */
+    public void invalidateStaticLayer() {
+        if (staticLayer != null) {
+            staticLayer.invalidate();
+        }
     }
 
     public void renderFrame(TETile[][] world, Point playerPos) {
@@ -41,11 +96,13 @@ public class TERenderer {
 
         ensureWithinBounds();
 
-        StdDraw.clear(new Color(0, 0, 0));
-        drawTiles(world);
+        target.clear(new Color(0, 0, 0));
+        drawWorld(world);
+        drawOverlay();
         findMouseHoveredTile(world);
+        displayStatus();
 
-        StdDraw.show();
+        target.show();
     }
 
     private void centerOnPlayer(Point playerPos) {
@@ -53,37 +110,144 @@ public class TERenderer {
         y_Offset = CANVAS_HEIGHT / 2 - (playerPos.y * TILE_SIZE);
     }
 
+    /**
+     * Draws the world onto the canvas, through the static layer if there is one.
+     */
+    protected void drawWorld(TETile[][] world) {
+        if (staticLayer != null) {
+            try {
+                staticLayer.draw(world, target, x_Offset, y_Offset, CANVAS_WIDTH, CANVAS_HEIGHT);
+                return;
+            } catch (IllegalArgumentException e) {
+                staticLayer = null; // The target can't draw images from memory, so draw the tiles every frame.
+            }
+        }
+        drawTiles(world);
+    }
+
+    /**
+     * Draws the tiles within the canvas, plus a margin of CULL_MARGIN tiles around it, so the cost of a frame
+     * depends on the canvas size rather than the world size.
+     */
     public void drawTiles(TETile[][] world) {
-        for (int x = 0; x < numXTiles; x += 1) {
-            for (int y = 0; y < numYTiles; y += 1) {
+        drawRegion(world, target, x_Offset, y_Offset, 0, 0, CANVAS_WIDTH, CANVAS_HEIGHT);
+    }
+
+    /**
+     * Draws the tiles that can cover the rectangle [left, right) x [bottom, top) of a target, with every tile
+     * shifted by the given offsets. Drawing the whole canvas is the region (0, 0, CANVAS_WIDTH, CANVAS_HEIGHT) at
+     * the current offsets; the static layer draws its parts of the world through this too.
+     *
+     * @param world the tiles to draw
+     * @param target where to draw them
+     * @param xOffset the x the tile at (0, 0) is drawn at
+     * @param yOffset the y the tile at (0, 0) is drawn at
+     */
+    protected void drawRegion(TETile[][] world, RenderTarget target, int xOffset, int yOffset,
+                              int left, int bottom, int right, int top) {
+        int minX = Math.max(0, Math.floorDiv(left - xOffset, TILE_SIZE) - CULL_MARGIN);
+        int maxX = Math.min(numXTiles - 1, Math.floorDiv(right - xOffset, TILE_SIZE) + CULL_MARGIN);
+        int minY = Math.max(0, Math.floorDiv(bottom - yOffset, TILE_SIZE) - CULL_MARGIN);
+        int maxY = Math.min(numYTiles - 1, Math.floorDiv(top - yOffset, TILE_SIZE) + CULL_MARGIN);
+        for (int x = minX; x <= maxX; x += 1) {
+            for (int y = minY; y <= maxY; y += 1) {
                 if (world[x][y] == null) {
                     throw new IllegalArgumentException("Tile at position x=" + x + ", y=" + y
                             + " is null.");
                 }
-                world[x][y].draw(x * TILE_SIZE + x_Offset, y * TILE_SIZE + y_Offset);
+                world[x][y].draw(target, x * TILE_SIZE + xOffset, y * TILE_SIZE + yOffset);
             }
         }
     }
 
+    /**
+     * Sets the overlay drawn over the world in every frame.
+     *
+     * @param overlay the overlay, or null for none
+     */
+    public void setOverlay(TileOverlay overlay) {
+        this.overlay = overlay;
+    }
+
+    protected void drawOverlay() {
+        if (overlay != null) {
+            overlay.draw(this);
+        }
+    }
+
+    /**
+     * Draws a tile over the world's tile at a cell, unless the cell is outside the world or far enough off the
+     * canvas that the tile cannot show. Overlays draw their tiles through this.
+     *
+     * @param x the cell's x-coordinate
+     * @param y the cell's y-coordinate
+     * @param tile the tile to draw
+     */
+    public void drawOverlayTile(int x, int y, TETile tile) {
+        if (x < 0 || x >= numXTiles || y < 0 || y >= numYTiles) {
+            return;
+        }
+        int screenX = cellX(x, y) + x_Offset;
+        int screenY = cellY(x, y) + y_Offset;
+        if (screenX < -OVERLAY_MARGIN || screenX > CANVAS_WIDTH + OVERLAY_MARGIN
+                || screenY < -OVERLAY_MARGIN || screenY > CANVAS_HEIGHT + OVERLAY_MARGIN) {
+            return;
+        }
+        tile.draw(target, screenX, screenY);
+    }
+
+    /**
+     * Returns the x drawRegion draws a cell's tile at, relative to the x offset.
+     */
+    protected int cellX(int x, int y) {
+        return x * TILE_SIZE;
+    }
+
+    /**
+     * Returns the y drawRegion draws a cell's tile at, relative to the y offset.
+     */
+    protected int cellY(int x, int y) {
+        return y * TILE_SIZE;
+    }
+
+    /**
+     * Identifies where drawRegion places tiles, so that static layers drawn for one key are only reused while
+     * it stays the same. The standard view never moves its tiles.
+     */
+    protected int projectionKey() {
+        return 0;
+    }
+
+    /**
+     * Returns the rectangle a cell's tile image can cover, relative to the offsets.
+     *
+     * @param x the cell's x-coordinate
+     * @param y the cell's y-coordinate
+     * @return the cell's bounds, with (x, y) its bottom-left corner
+     */
+    protected Rectangle cellBounds(int x, int y) {
+        return new Rectangle(x * TILE_SIZE - TILE_SIZE / 2 - 1, y * TILE_SIZE - TILE_SIZE / 2 - 1, TILE_SIZE + 2, TILE_SIZE + 2);
+    }
+
     /* @Source ChatGPT wrote the boilerplate code for this method */
     protected void handlePanning() {
-        if (StdDraw.isKeyPressed(KeyEvent.VK_LEFT)) {
+        if (target.isKeyPressed(KeyEvent.VK_LEFT)) {
             x_Offset += 10;
             centered = false;
         }
-        if (StdDraw.isKeyPressed(KeyEvent.VK_RIGHT)) {
+        if (target.isKeyPressed(KeyEvent.VK_RIGHT)) {
             x_Offset -= 10;
             centered = false;
         }
-        if (StdDraw.isKeyPressed(KeyEvent.VK_UP)) {
+        if (target.isKeyPressed(KeyEvent.VK_UP)) {
             y_Offset -= 10;
             centered = false;
         }
-        if (StdDraw.isKeyPressed(KeyEvent.VK_DOWN)) {
+        if (target.isKeyPressed(KeyEvent.VK_DOWN)) {
             y_Offset += 10;
             centered = false;
         }
-        if (StdDraw.isKeyPressed(KeyEvent.VK_P)) {
+        if (target.isKeyPressed(KeyEvent.VK_P)) {
             centered = true;
         }
 
@@ -109,8 +273,8 @@ public class TERenderer {
     }
 
     private void findMouseHoveredTile(TETile[][] world) {
-        int mouseX = (int) StdDraw.mouseX();
-        int mouseY = (int) StdDraw.mouseY();
+        int mouseX = (int) target.mouseX();
+        int mouseY = (int) target.mouseY();
         int[] tilePos = screenToTileGrid(mouseX, mouseY);
 
         int tileX = tilePos[0];
@@ -124,15 +288,36 @@ public class TERenderer {
 
     /* @Source ChatGPT wrote most of this method  */
     protected void displayHoveredTileDescription(String desc) {
-        StdDraw.setPenColor(Color.BLACK);
-        StdDraw.filledRectangle(60, CANVAS_HEIGHT - 20, Math.ceilDiv((desc.length() * TILE_SIZE), 2) + 5, 14);
+        target.setPenColor(Color.BLACK);
+        target.filledRectangle(60, CANVAS_HEIGHT - 20, Math.ceilDiv((desc.length() * TILE_SIZE), 2) + 5, 14);
+
+        target.setPenColor(Color.WHITE);
+        target.textLeft(10, CANVAS_HEIGHT - 20, desc);
+    }
+
+    /**
+     * Sets text shown in the top-right corner of every frame, e.g. the game loop's tick and frame rates.
+     *
+     * @param status the text to show, or null to show none
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    protected void displayStatus() {
+        if (status == null) {
+            return;
+        }
+        int halfWidth = Math.ceilDiv(status.length() * TILE_SIZE, 3) + 5;
+        target.setPenColor(Color.BLACK);
+        target.filledRectangle(CANVAS_WIDTH - halfWidth, CANVAS_HEIGHT - 20, halfWidth, 14);
 
-        StdDraw.setPenColor(Color.WHITE);
-        StdDraw.textLeft(10, CANVAS_HEIGHT - 20, desc);
+        target.setPenColor(Color.WHITE);
+        target.textLeft(CANVAS_WIDTH - 2 * halfWidth + 10, CANVAS_HEIGHT - 20, status);
     }
 
     public void resetFont() {
         Font font = new Font("Monaco", Font.BOLD, TILE_SIZE);
-        StdDraw.setFont(font);
+        target.setFont(font);
     }
 }
@@ -1,12 +1,7 @@
 package tileengine;
 
-import edu.princeton.cs.algs4.StdDraw;
-
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
 import java.io.Serializable;
 
 /**
@@ -28,9 +23,9 @@ public class TETile implements Serializable {
     private final Color textColor;
     private final Color backgroundColor;
     private final String description;
-    private String filepath;
+    private final String filepath;
     private final int id;
-    private boolean visited = false;
+    private transient volatile BufferedImage sprite; // Resolved from TileImages on first use
 
     /**
      * Full constructor for TETile objects.
@@ -61,6 +56,15 @@ public class TETile implements Serializable {
     }
 
 
+    /**
+     * Copies another tile's character, colors, description, image path and ID, e.g. for a subclass that looks
+     * like it but is drawn differently.
+     * @param tile the tile to copy
+     */
+    protected TETile(TETile tile) {
+        this(tile.character, tile.textColor, tile.backgroundColor, tile.description, tile.filepath, tile.id);
+    }
+
     /**
      * Draws the tile to the screen at location x, y. If a valid filepath is provided,
      * we draw the image located at that filepath to the screen. Otherwise, we fall
@@ -72,9 +76,27 @@ public class TETile implements Serializable {
      * @param y y coordinate
      */
     public void draw(double x, double y) {
-        if (filepath != null) {
+        draw(StdDrawTarget.get(), x, y);
+    }
+
+    /**
+     * Draws the tile to the given target at location x, y from its decoded image, falling back to the
+     * character and color representation if the image cannot be read.
+     * @param target where to draw the tile
+     * @param x x coordinate
+     * @param y y coordinate
+     */
+    public void draw(RenderTarget target, double x, double y) {
+        BufferedImage image = getSprite();
+        if (image != null) {
             try {
-                StdDraw.picture(x + 0.5, y + 0.5, filepath);
+                target.picture(x + 0.5, y + 0.5, image);
+                return;
+            } catch (IllegalArgumentException e) {
+                // The target can't draw images from memory, so draw the image from its file instead.
+            }
+            try {
+                target.picture(x + 0.5, y + 0.5, filepath);
                 return;
             } catch (IllegalArgumentException e) {
                 // Exception happens because the file can't be found. In this case, fail silently
@@ -82,10 +104,10 @@ public class TETile implements Serializable {
             }
         }
 
-        StdDraw.setPenColor(backgroundColor);
-        StdDraw.filledSquare(x + 0.5, y + 0.5, 0.5);
-        StdDraw.setPenColor(textColor);
-        StdDraw.text(x + 0.5, y + 0.5, Character.toString(character()));
+        target.setPenColor(backgroundColor);
+        target.filledSquare(x + 0.5, y + 0.5, 0.5);
+        target.setPenColor(textColor);
+        target.text(x + 0.5, y + 0.5, Character.toString(character()));
     }
 
     /** Character representation of the tile. Used for drawing in text mode.
@@ -104,13 +126,18 @@ public class TETile implements Serializable {
         return description;
     }
 
+    /**
+     * The tile's image, decoded once and shared by every tile drawn from the same file. It must not be
+     * drawn into.
+     * @return the decoded image, or null if the tile has no image or it cannot be read
+     */
     public BufferedImage getSprite() {
-        try {
-            return ImageIO.read(new File(filepath));
-        } catch (IOException e) {
-            return null;
+        BufferedImage image = sprite;
+        if (image == null && filepath != null) {
+            image = TileImages.get(filepath);
+            sprite = image;
         }
-
+        return image;
     }
 
     /**
@@ -169,18 +196,6 @@ public class TETile implements Serializable {
         return filepath;
     }
 
-    public void changeFilePath(String filepath) {
-        this.filepath = filepath;
-    }
-
-    public boolean beenVisited() {
-        return visited;
-    }
-
-    public void visit() {
-        visited = true;
-    }
-
     public boolean isPlayer() {
         return id == 15;
     }
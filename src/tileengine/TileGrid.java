@@ -0,0 +1,146 @@
+package tileengine;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compact storage for a world's tiles. Every cell is a tile kind (the same ids TETile uses) plus a
+ * variant choosing which image of that kind is shown. Both are kept in flat column-major byte arrays,
+ * so generation passes never allocate per-tile objects; IslandTileSet turns a cell into a TETile
+ * only when a view of the world is needed.
+ */
+public class TileGrid {
+    public static final byte UNUSED = 0;
+    public static final byte NOTHING = 1;
+    public static final byte FLOOR = 2;
+    public static final byte HALLWAY = 3;
+    public static final byte WALL = 4;
+    public static final byte DOOR = 8;
+
+    private final int width;
+    private final int height;
+    private final byte[] kinds;
+    private final byte[] variants;
+
+    /**
+     * Creates a grid with every cell set to UNUSED.
+     *
+     * @param width the number of columns
+     * @param height the number of rows
+     */
+    public TileGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.kinds = new byte[width * height];
+        this.variants = new byte[width * height];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the flat index of a cell. Cells of the same column are adjacent, matching TETile[x][y].
+     */
+    public int index(int x, int y) {
+        return x * height + y;
+    }
+
+    public byte kind(int x, int y) {
+        return kinds[x * height + y];
+    }
+
+    public byte variant(int x, int y) {
+        return variants[x * height + y];
+    }
+
+    public void set(int x, int y, byte kind, int variant) {
+        int i = x * height + y;
+        kinds[i] = kind;
+        variants[i] = (byte) variant;
+    }
+
+    /**
+     * Sets every cell of column x to the given kind and variant.
+     */
+    public void fillColumn(int x, byte kind, int variant) {
+        int from = x * height;
+        Arrays.fill(kinds, from, from + height, kind);
+        Arrays.fill(variants, from, from + height, (byte) variant);
+    }
+
+    public boolean isUnused(int x, int y) {
+        return kind(x, y) == UNUSED;
+    }
+
+    public boolean isNothing(int x, int y) {
+        return kind(x, y) == NOTHING;
+    }
+
+    public boolean isFloor(int x, int y) {
+        return kind(x, y) == FLOOR;
+    }
+
+    public boolean isHallway(int x, int y) {
+        return kind(x, y) == HALLWAY;
+    }
+
+    public boolean isWall(int x, int y) {
+        return kind(x, y) == WALL;
+    }
+
+    public boolean isDoor(int x, int y) {
+        return kind(x, y) == DOOR;
+    }
+
+    public boolean isWalkable(int x, int y) {
+        byte kind = kind(x, y);
+        return kind == FLOOR || kind == HALLWAY || kind == DOOR;
+    }
+
+    /**
+     * Counts the cells a player can walk on.
+     *
+     * @return the number of floor, hallway and door cells
+     */
+    public int countWalkable() {
+        int count = 0;
+        for (byte kind : kinds) {
+            if (kind == FLOOR || kind == HALLWAY || kind == DOOR) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the grid's size and cells.
+     *
+     * @param out where to write the grid
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(width);
+        out.writeInt(height);
+        out.write(kinds);
+        out.write(variants);
+    }
+
+    /**
+     * Reads a grid written by writeTo.
+     *
+     * @param in where to read the grid from
+     * @return the grid
+     */
+    public static TileGrid readFrom(DataInput in) throws IOException {
+        TileGrid grid = new TileGrid(in.readInt(), in.readInt());
+        in.readFully(grid.kinds);
+        in.readFully(grid.variants);
+        return grid;
+    }
+}
@@ -0,0 +1,66 @@
+package tileengine;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes tile images once and keeps them in memory, so tiles are drawn from decoded images instead of being
+ * read from disk or looked up by filename on every frame.
+ * <p>
+ * Images are decoded on first use and keyed by path, so tiles sharing a file (e.g. doors and hallways) share
+ * one image. Each TETile keeps the image it resolved, and since IslandTileSet interns one TETile per tile
+ * kind, variant and view, drawing looks nothing up once a tile has been drawn.
+ */
+public class TileImages {
+    private static final Map<String, Optional<BufferedImage>> IMAGES = new ConcurrentHashMap<>();
+
+    private TileImages() {
+    }
+
+    /**
+     * Returns the decoded image at the given path, decoding it if this is the first request for it. The
+     * image is shared: callers must not draw into it.
+     *
+     * @param filepath the image's path
+     * @return the image, or null if it cannot be read
+     */
+    public static BufferedImage get(String filepath) {
+        return IMAGES.computeIfAbsent(filepath, TileImages::decode).orElse(null);
+    }
+
+    /**
+     * Returns how many images have been decoded, or have failed to decode.
+     *
+     * @return the number of paths requested so far
+     */
+    public static int size() {
+        return IMAGES.size();
+    }
+
+    /**
+     * Reads an image and converts it to premultiplied ARGB, which Java2D draws without converting it again on
+     * every draw, unlike the indexed and byte-interleaved images PNGs usually decode to.
+     */
+    private static Optional<BufferedImage> decode(String filepath) {
+        BufferedImage read;
+        try {
+            read = ImageIO.read(new File(filepath));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+        if (read == null) {
+            return Optional.empty();
+        }
+        BufferedImage image = new BufferedImage(read.getWidth(), read.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        g.drawImage(read, 0, 0, null);
+        g.dispose();
+        return Optional.of(image);
+    }
+}
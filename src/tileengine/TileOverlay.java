@@ -0,0 +1,14 @@
+package tileengine;
+
+/**
+ * Tiles drawn over the world every frame without being part of it, such as characters wandering the island.
+ * An overlay never changes the world's tiles, so moving what it draws needs no dirty cells in the static layer.
+ */
+public interface TileOverlay {
+    /**
+     * Draws the overlay's tiles with the renderer's drawOverlayTile, after the world and before the text on top.
+     *
+     * @param renderer the renderer drawing the frame
+     */
+    void draw(TERenderer renderer);
+}